@@ -0,0 +1,150 @@
+package rpg.analytics;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import rpg.core.Character;
+import rpg.core.CombatEndEvent;
+import rpg.core.CombatTurnEvent;
+import rpg.history.AdvancedBattleHistoryManager;
+import rpg.history.BattleArchive;
+import rpg.history.BattleHistory;
+import rpg.history.BattleLog;
+import rpg.observer.Subscription;
+import rpg.observer.TypedEventBus;
+
+// Statistiques agrégées sur un nombre illimité de combats, en mémoire fixe :
+// quantiles des dégâts par coup et du nombre de tours, nombre de rencontres distinctes,
+// vainqueurs les plus fréquents. Pas thread-safe : une instance par thread, puis merge().
+public class BattleAnalytics {
+    private final QuantileHistogram damage = new QuantileHistogram();
+    private final QuantileHistogram turns = new QuantileHistogram();
+    private final HyperLogLog matchups = new HyperLogLog();
+    private final CountMinSketch winners = new CountMinSketch();
+    private long battles;
+
+    // --------------------- Sources ---------------------
+    public void record(BattleHistory battle) {
+        int count = battle.getActionCount();
+        for (int i = 0; i < count; i++) damage.record(battle.getDamage(i));
+        recordOutcome(battle.getFighter1(), battle.getFighter2(), battle.getWinner(), count);
+    }
+
+    // issue d'un combat sans le détail des coups
+    public void recordOutcome(Character a, Character b, Character winner, int turnCount) {
+        battles++;
+        turns.record(turnCount);
+        matchups.addHash(matchupHash(a.getName(), b.getName()));
+        if (winner != null) winners.add(winner.getName());
+    }
+
+    public void recordDamage(int hit) {
+        damage.record(hit);
+    }
+
+    // suit les combats d'un CombatEngine via son bus typé (livraison synchrone)
+    public List<Subscription<?>> attach(TypedEventBus bus) {
+        List<Subscription<?>> subscriptions = new ArrayList<>(2);
+        subscriptions.add(bus.subscribe(CombatTurnEvent.class, e -> recordDamage(e.getDamage())));
+        subscriptions.add(bus.subscribe(CombatEndEvent.class,
+            e -> recordOutcome(e.getFighterA(), e.getFighterB(), e.getWinner(), e.getTurns())));
+        return subscriptions;
+    }
+
+    public void recordAll(AdvancedBattleHistoryManager manager) {
+        int pageSize = 256;
+        int total = manager.getTotalBattleCount();
+        for (int page = 0; page * pageSize < total; page++) {
+            for (BattleHistory battle : manager.getBattlesPage(page, pageSize)) record(battle);
+        }
+    }
+
+    public void recordAll(BattleArchive archive) {
+        for (int i = 0; i < archive.size(); i++) record(archive.get(i));
+    }
+
+    // lecture directe du journal binaire, sans matérialiser les combats
+    public void recordAll(Path battleLog) {
+        BattleLog.scan(battleLog, cursor -> {
+            int count = cursor.getActionCount();
+            for (int i = 0; i < count; i++) damage.record(cursor.getDamage(i));
+            String a = cursor.getFighterName(1);
+            String b = cursor.getFighterName(2);
+            battles++;
+            turns.record(count);
+            matchups.addHash(matchupHash(a, b));
+            int winner = cursor.getWinnerSide();
+            if (winner != 0) winners.add(winner == 1 ? a : b);
+        });
+    }
+
+    // une instance par tâche, fusionnées en remontant
+    public static BattleAnalytics parallel(List<BattleHistory> battles, ForkJoinPool pool) {
+        return pool.invoke(new AnalyticsTask(battles, 0, battles.size()));
+    }
+
+    public void merge(BattleAnalytics other) {
+        damage.merge(other.damage);
+        turns.merge(other.turns);
+        matchups.merge(other.matchups);
+        winners.merge(other.winners);
+        battles += other.battles;
+    }
+
+    // rencontre non ordonnée : A vs B == B vs A
+    private static long matchupHash(String a, String b) {
+        long ha = Hash64.of(a);
+        long hb = Hash64.of(b);
+        return Hash64.mix(Math.min(ha, hb) * 31 + Math.max(ha, hb));
+    }
+
+    // --------------------- Résultats ---------------------
+    public long getBattleCount() { return battles; }
+    public QuantileHistogram getDamageHistogram() { return damage; }
+    public QuantileHistogram getTurnHistogram() { return turns; }
+    public long getDamageQuantile(double q) { return damage.getValueAtQuantile(q); }
+    public long getTurnQuantile(double q) { return turns.getValueAtQuantile(q); }
+    public long getDistinctMatchups() { return matchups.estimate(); }
+    public List<Map.Entry<String, Long>> getTopWinners() { return winners.getHeavyHitters(); }
+
+    @Override
+    public String toString() {
+        return "BattleAnalytics[battles=" + battles
+            + ", damage{" + damage + "}"
+            + ", turns{" + turns + "}"
+            + ", distinctMatchups=" + getDistinctMatchups()
+            + ", topWinners=" + getTopWinners() + "]";
+    }
+
+    private static final class AnalyticsTask extends RecursiveTask<BattleAnalytics> {
+        private static final int CHUNK = 256;
+        private final List<BattleHistory> battles;
+        private final int from;
+        private final int to;
+
+        AnalyticsTask(List<BattleHistory> battles, int from, int to) {
+            this.battles = battles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BattleAnalytics compute() {
+            if (to - from <= CHUNK) {
+                BattleAnalytics local = new BattleAnalytics();
+                for (int i = from; i < to; i++) local.record(battles.get(i));
+                return local;
+            }
+            int mid = (from + to) >>> 1;
+            AnalyticsTask left = new AnalyticsTask(battles, from, mid);
+            left.fork();
+            BattleAnalytics right = new AnalyticsTask(battles, mid, to).compute();
+            BattleAnalytics result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
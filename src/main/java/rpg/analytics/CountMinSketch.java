@@ -0,0 +1,102 @@
+package rpg.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fréquences approchées (jamais sous-estimées) dans depth x width compteurs, plus les
+// topK clés les plus fréquentes vues jusqu'ici. Fusion : addition des tables.
+public class CountMinSketch {
+    private final int depth;
+    private final int widthMask;
+    private final long[][] table;
+    private final int topK;
+    private final Map<String, Long> heavyHitters = new HashMap<>();
+    private long total;
+
+    public CountMinSketch() {
+        this(4, 2048, 10);
+    }
+
+    // width arrondie à la puissance de deux supérieure
+    public CountMinSketch(int depth, int width, int topK) {
+        if (depth < 1 || width < 1 || topK < 1) throw new IllegalArgumentException("depth, width and topK must be >= 1");
+        int w = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.widthMask = w - 1;
+        this.table = new long[depth][w];
+        this.topK = topK;
+    }
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long count) {
+        long hash = Hash64.of(key);
+        for (int i = 0; i < depth; i++) table[i][slot(hash, i)] += count;
+        total += count;
+        offerHeavyHitter(key, estimate(hash));
+    }
+
+    public long estimate(String key) {
+        return estimate(Hash64.of(key));
+    }
+
+    private long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) min = Math.min(min, table[i][slot(hash, i)]);
+        return min;
+    }
+
+    // double hachage : h1 + i * h2
+    private int slot(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + row * h2) & widthMask;
+    }
+
+    private void offerHeavyHitter(String key, long estimate) {
+        if (heavyHitters.containsKey(key) || heavyHitters.size() < topK) {
+            heavyHitters.put(key, estimate);
+            return;
+        }
+        String weakest = null;
+        long weakestCount = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> e : heavyHitters.entrySet()) {
+            if (e.getValue() < weakestCount) {
+                weakest = e.getKey();
+                weakestCount = e.getValue();
+            }
+        }
+        if (estimate > weakestCount) {
+            heavyHitters.remove(weakest);
+            heavyHitters.put(key, estimate);
+        }
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.widthMask != widthMask) throw new IllegalArgumentException("dimension mismatch");
+        for (int i = 0; i < depth; i++) {
+            for (int j = 0; j <= widthMask; j++) table[i][j] += other.table[i][j];
+        }
+        total += other.total;
+        // candidats des deux côtés, réestimés sur la table fusionnée
+        List<String> candidates = new ArrayList<>(heavyHitters.keySet());
+        candidates.addAll(other.heavyHitters.keySet());
+        heavyHitters.clear();
+        for (String key : candidates) offerHeavyHitter(key, estimate(key));
+    }
+
+    // du plus fréquent au moins fréquent
+    public List<Map.Entry<String, Long>> getHeavyHitters() {
+        List<Map.Entry<String, Long>> list = new ArrayList<>(heavyHitters.entrySet());
+        list.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return list;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,22 @@
+package rpg.analytics;
+
+// hachage 64 bits des clés (FNV-1a puis mélange final de SplitMix64)
+final class Hash64 {
+    private Hash64() {
+    }
+
+    static long of(CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,53 @@
+package rpg.analytics;
+
+// Estimation du nombre d'éléments distincts : 2^precision registres d'un octet,
+// erreur type ~1.04 / sqrt(2^precision) (1.6 % avec la précision par défaut de 12).
+public class HyperLogLog {
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(12);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) throw new IllegalArgumentException("precision must be in [4, 18]");
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(CharSequence key) {
+        addHash(Hash64.of(key));
+    }
+
+    // hash 64 bits déjà bien mélangé
+    public void addHash(long hash) {
+        int idx = (int) (hash >>> (64 - precision));
+        long w = hash << precision;
+        int rank = Math.min(Long.numberOfLeadingZeros(w), 64 - precision) + 1;
+        if (rank > registers[idx]) registers[idx] = (byte) rank;
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) throw new IllegalArgumentException("precision mismatch");
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double e = alpha * m * m / sum;
+        if (e <= 2.5 * m && zeros > 0) {
+            e = m * Math.log((double) m / zeros); // petits effectifs : comptage linéaire
+        }
+        return Math.round(e);
+    }
+}
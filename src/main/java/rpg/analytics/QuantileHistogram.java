@@ -0,0 +1,84 @@
+package rpg.analytics;
+
+// Histogramme log-linéaire (à la HDR) : valeurs exactes jusqu'à 127, puis 64 cases par
+// puissance de deux, soit moins de 1,6 % d'erreur relative. Mémoire fixe (~30 Ko)
+// quel que soit le nombre de valeurs, et fusion par simple addition des cases.
+public class QuantileHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;      // 128
+    private static final int HALF = SUB >> 1;          // 64
+    private static final int BUCKETS = SUB + (63 - SUB_BITS) * HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    // valeurs négatives ramenées à 0
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    public void record(long value, long count) {
+        long v = Math.max(0, value);
+        counts[index(v)] += count;
+        total += count;
+        sum += v * count;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    public void merge(QuantileHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // q dans [0, 1] ; 0 si vide
+    public long getValueAtQuantile(double q) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1.0, Math.max(0.0, q)) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, representative(i)));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() { return total; }
+    public long getMin() { return total == 0 ? 0 : min; }
+    public long getMax() { return total == 0 ? 0 : max; }
+
+    public double getMean() {
+        return total == 0 ? 0.0 : (double) sum / total;
+    }
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        int mantissa = (int) (v >>> shift); // dans [64, 128)
+        return SUB + (shift - 1) * HALF + (mantissa - HALF);
+    }
+
+    // milieu de la case
+    static long representative(int index) {
+        if (index < SUB) return index;
+        int shift = (index - SUB) / HALF + 1;
+        long mantissa = (index - SUB) % HALF + HALF;
+        long low = mantissa << shift;
+        return low + ((1L << shift) >> 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.2f p50=%d p90=%d p99=%d max=%d",
+            total, getMean(), getValueAtQuantile(0.5), getValueAtQuantile(0.9),
+            getValueAtQuantile(0.99), getMax());
+    }
+}
@@ -1,20 +1,27 @@
 package rpg.command;
 
 import rpg.core.Character;
+import rpg.core.RandomSource;
 
 public class AttackCommand implements Command {
     private final Character attacker;
     private final Character target;
+    private final RandomSource random;
     private int damageDealt;
 
     public AttackCommand(Character attacker, Character target) {
+        this(attacker, target, RandomSource.shared());
+    }
+
+    public AttackCommand(Character attacker, Character target, RandomSource random) {
         this.attacker = attacker;
         this.target = target;
+        this.random = random;
     }
 
     @Override
     public void execute() {
-        int attackPower = attacker.getStrength() + (int)(Math.random() * 10);
+        int attackPower = attacker.getStrength() + random.nextInt(10);
         damageDealt = Math.max(1, attackPower - target.getAgility() / 2);
     }
 
@@ -24,7 +31,19 @@ public class AttackCommand implements Command {
 
     @Override
     public String getDescription() {
-        return attacker.getName() + " attacks " + target.getName() + " for " + damageDealt + " damage";
+        return describe(attacker, target, damageDealt);
+    }
+
+    static String describe(Character attacker, Character target, int damage) {
+        return attacker.getName() + " attacks " + target.getName() + " for " + damage + " damage";
+    }
+
+    Character getAttacker() {
+        return attacker;
+    }
+
+    Character getTarget() {
+        return target;
     }
 
     public int getDamageDealt() {
@@ -1,31 +1,276 @@
 package rpg.command;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import rpg.core.Character;
 
-public class CommandHistory {
-    private final List<Command> executedCommands = new ArrayList<>();
+// Historique des commandes. Sans capacité : liste illimitée des Command (comportement d'origine).
+// Avec capacité : tampon circulaire de records compactés (type, acteur, cible, valeur) dans un
+// long[], le plus ancien est écrasé (et écrit dans le fichier de débordement s'il y en a un).
+public class CommandHistory implements AutoCloseable {
+    public static final int MAX_CAPACITY = 1 << 18;
+
+    private static final int ATTACK = 0;
+    private static final int POWER = 1;
+    private static final int DEFEND = 2;
+    private static final int OTHER = 3;
+    private static final int FIELD_MASK = 0xFFFFF; // 20 bits par champ
+    private static final int TYPE_MASK = 0xF;
+
+    // mode illimité
+    private final List<Command> executedCommands;
+
+    // mode borné
+    private final long[] records;
+    private final int compactThreshold;
+    private Command[] others; // commandes de type inconnu, alloué à la demande
+    private int head;
+    private int size;
+    private long evicted;
+    // personnages et noms de pouvoirs référencés par les records
+    private List<Object> refs;
+    private Map<Object, Integer> refIds;
+    private final Path spillFile;
+    private BufferedWriter spill;
+    private boolean spilled; // le fichier contient des lignes de cet historique
+
+    public CommandHistory() {
+        this.executedCommands = new ArrayList<>();
+        this.records = null;
+        this.compactThreshold = 0;
+        this.spillFile = null;
+    }
+
+    public CommandHistory(int capacity) {
+        this(capacity, null);
+    }
+
+    // spillFile : les commandes écrasées y sont ajoutées en texte, une par ligne ; le contenu
+    // d'une exécution précédente est écrasé au premier débordement
+    public CommandHistory(int capacity, Path spillFile) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be in [1, " + MAX_CAPACITY + "]");
+        }
+        this.executedCommands = null;
+        this.records = new long[capacity];
+        // un execute() ajoute au plus deux références : sous ce seuil, les ids tiennent dans un champ
+        this.compactThreshold = Math.min(4 * capacity + 16, FIELD_MASK - 1);
+        this.refs = new ArrayList<>();
+        this.refIds = new IdentityHashMap<>();
+        this.spillFile = spillFile;
+    }
 
     public void execute(Command command) {
         command.execute();
-        executedCommands.add(command);
+        if (records == null) {
+            executedCommands.add(command);
+            return;
+        }
+        int slot;
+        if (size == records.length) {
+            slot = head;
+            spillOut(slot);
+            head = (head + 1) % records.length;
+            evicted++;
+        } else {
+            slot = (head + size++) % records.length;
+        }
+        if (others != null) others[slot] = null;
+        records[slot] = encode(command, slot);
+        // chaque record référence au plus deux objets : au-delà, la table contient surtout des morts
+        if (refs.size() > compactThreshold) compactRefs();
     }
 
     public void replay() {
-        for (Command command : executedCommands) {
-            command.execute();
+        if (records == null) {
+            for (Command command : executedCommands) {
+                command.execute();
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            decode((head + i) % records.length).execute();
         }
     }
 
-    public List<String> getHistory() {
-        List<String> history = new ArrayList<>();
-        for (Command command : executedCommands) {
-            history.add(command.getDescription());
+    // flux paresseux : les descriptions ne sont construites qu'au fur et à mesure de la lecture.
+    // En mode borné, les commandes déjà débordées sur disque viennent en premier.
+    // Le flux peut alors tenir le fichier ouvert : à fermer (try-with-resources).
+    public Stream<String> getHistory() {
+        if (records == null) {
+            return executedCommands.stream().map(Command::getDescription);
         }
-        return history;
+        int count = size;
+        Stream<String> inMemory = IntStream.range(0, count)
+            .mapToObj(i -> describe((head + i) % records.length));
+        // fichier relu même après close()
+        if (!spilled) return inMemory;
+        try {
+            if (spill != null) spill.flush();
+            return Stream.concat(Files.lines(spillFile, StandardCharsets.UTF_8), inMemory);
+        } catch (IOException e) {
+            throw new RuntimeException("history read failed: " + e.getMessage(), e);
+        }
+    }
+
+    public int size() {
+        return records == null ? executedCommands.size() : size;
+    }
+
+    // 0 en mode illimité
+    public int getCapacity() {
+        return records == null ? 0 : records.length;
+    }
+
+    public long getEvictedCount() {
+        return evicted;
     }
 
     public void clear() {
-        executedCommands.clear();
+        if (records == null) {
+            executedCommands.clear();
+            return;
+        }
+        head = 0;
+        size = 0;
+        evicted = 0;
+        others = null;
+        refs.clear();
+        refIds.clear();
+        if (spilled) {
+            close();
+            spilled = false;
+            try {
+                Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING).close();
+            } catch (IOException e) {
+                throw new RuntimeException("history clear failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (spill == null) return;
+        try {
+            spill.close();
+        } catch (IOException e) {
+            throw new RuntimeException("history spill failed: " + e.getMessage(), e);
+        } finally {
+            spill = null;
+        }
+    }
+
+    private long encode(Command command, int slot) {
+        if (command instanceof AttackCommand) {
+            AttackCommand c = (AttackCommand) command;
+            return pack(ATTACK, intern(c.getAttacker()), intern(c.getTarget()), c.getDamageDealt());
+        }
+        if (command instanceof UsePowerCommand) {
+            UsePowerCommand c = (UsePowerCommand) command;
+            return pack(POWER, intern(c.getCaster()), intern(c.getPowerName()), c.getEffectValue());
+        }
+        if (command instanceof DefendCommand) {
+            DefendCommand c = (DefendCommand) command;
+            return pack(DEFEND, intern(c.getDefender()), 0, c.getDefenseBonus());
+        }
+        if (others == null) others = new Command[records.length];
+        others[slot] = command;
+        return pack(OTHER, 0, 0, 0);
+    }
+
+    private static long pack(int type, int actor, int target, int value) {
+        int v = Math.max(0, Math.min(FIELD_MASK, value));
+        return ((long) (type & TYPE_MASK) << 60) | ((long) (actor & FIELD_MASK) << 40)
+            | ((long) (target & FIELD_MASK) << 20) | v;
+    }
+
+    private static int type(long r) { return (int) (r >>> 60); }
+    private static int actor(long r) { return (int) (r >>> 40) & FIELD_MASK; }
+    private static int target(long r) { return (int) (r >>> 20) & FIELD_MASK; }
+    private static int value(long r) { return (int) r & FIELD_MASK; }
+
+    private String describe(int slot) {
+        long r = records[slot];
+        switch (type(r)) {
+            case ATTACK:
+                return AttackCommand.describe(character(actor(r)), character(target(r)), value(r));
+            case POWER:
+                return UsePowerCommand.describe(character(actor(r)), (String) refs.get(target(r)), value(r));
+            case DEFEND:
+                return DefendCommand.describe(character(actor(r)), value(r));
+            default:
+                return others[slot].getDescription();
+        }
+    }
+
+    // commande reconstruite pour replay()
+    private Command decode(int slot) {
+        long r = records[slot];
+        switch (type(r)) {
+            case ATTACK:
+                return new AttackCommand(character(actor(r)), character(target(r)));
+            case POWER:
+                return new UsePowerCommand(character(actor(r)), (String) refs.get(target(r)));
+            case DEFEND:
+                return new DefendCommand(character(actor(r)));
+            default:
+                return others[slot];
+        }
+    }
+
+    private Character character(int id) {
+        return (Character) refs.get(id);
+    }
+
+    private int intern(Object ref) {
+        Integer id = refIds.get(ref);
+        if (id == null) {
+            id = refs.size();
+            refs.add(ref);
+            refIds.put(ref, id);
+        }
+        return id;
+    }
+
+    // renumérote la table à partir des seuls records encore présents
+    private void compactRefs() {
+        List<Object> oldRefs = refs;
+        refs = new ArrayList<>();
+        refIds = new IdentityHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % records.length;
+            long r = records[slot];
+            int type = type(r);
+            if (type == OTHER) continue;
+            int actor = intern(oldRefs.get(actor(r)));
+            int target = type == DEFEND ? 0 : intern(oldRefs.get(target(r)));
+            records[slot] = pack(type, actor, target, value(r));
+        }
+    }
+
+    private void spillOut(int slot) {
+        if (spillFile == null) return;
+        try {
+            if (spill == null) {
+                // première écriture : on repart d'un fichier vide ; après close(), on complète
+                spill = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    spilled ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+                spilled = true;
+            }
+            spill.write(describe(slot));
+            spill.newLine();
+        } catch (IOException e) {
+            throw new RuntimeException("history spill failed: " + e.getMessage(), e);
+        }
     }
-}
\ No newline at end of file
+}
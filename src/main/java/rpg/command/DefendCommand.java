@@ -21,7 +21,15 @@ public class DefendCommand implements Command {
 
     @Override
     public String getDescription() {
-        return defender.getName() + " defends (+" + defenseBonus + " defense)";
+        return describe(defender, defenseBonus);
+    }
+
+    static String describe(Character defender, int bonus) {
+        return defender.getName() + " defends (+" + bonus + " defense)";
+    }
+
+    Character getDefender() {
+        return defender;
     }
 
     public int getDefenseBonus() {
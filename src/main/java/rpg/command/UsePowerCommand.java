@@ -1,20 +1,27 @@
 package rpg.command;
 
 import rpg.core.Character;
+import rpg.core.RandomSource;
 
 public class UsePowerCommand implements Command {
     private final Character caster;
     private final String powerName;
+    private final RandomSource random;
     private int effectValue;
 
     public UsePowerCommand(Character caster, String powerName) {
+        this(caster, powerName, RandomSource.shared());
+    }
+
+    public UsePowerCommand(Character caster, String powerName, RandomSource random) {
         this.caster = caster;
         this.powerName = powerName;
+        this.random = random;
     }
 
     @Override
     public void execute() {
-        effectValue = caster.getIntelligence() + (int)(Math.random() * 5);
+        effectValue = caster.getIntelligence() + random.nextInt(5);
     }
 
     @Override
@@ -23,7 +30,19 @@ public class UsePowerCommand implements Command {
 
     @Override
     public String getDescription() {
-        return caster.getName() + " uses " + powerName + " (effect: " + effectValue + ")";
+        return describe(caster, powerName, effectValue);
+    }
+
+    static String describe(Character caster, String powerName, int effect) {
+        return caster.getName() + " uses " + powerName + " (effect: " + effect + ")";
+    }
+
+    Character getCaster() {
+        return caster;
+    }
+
+    String getPowerName() {
+        return powerName;
     }
 
     public int getEffectValue() {
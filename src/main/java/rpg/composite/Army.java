@@ -3,9 +3,17 @@ package rpg.composite;
 import java.util.ArrayList;
 import java.util.List;
 
+// Les totaux du sous-arbre sont gardés dans chaque Army : un ajout ou un retrait, ici ou
+// dans une Party descendante, ne remonte que le chemin vers la racine (O(profondeur)).
 public class Army implements GroupComponent {
     private final String name;
     private final List<GroupComponent> children = new ArrayList<>();
+    private GroupComponent parent;
+    private int totalPower;
+    private int memberCount;
+    private int totalStrength;
+    private int totalAgility;
+    private int totalIntelligence;
 
     public Army(String name) {
         this.name = name;
@@ -13,12 +21,30 @@ public class Army implements GroupComponent {
 
     @Override
     public void add(GroupComponent component) {
+        // un composant n'a qu'un parent
+        if (component.getParent() != null) component.getParent().remove(component);
         children.add(component);
+        component.setParent(this);
+        childChanged(component.getTotalPower(), component.getMemberCount(), component.getTotalStrength(),
+            component.getTotalAgility(), component.getTotalIntelligence());
     }
 
     @Override
     public void remove(GroupComponent component) {
-        children.remove(component);
+        if (!children.remove(component)) return;
+        component.setParent(null);
+        childChanged(-component.getTotalPower(), -component.getMemberCount(), -component.getTotalStrength(),
+            -component.getTotalAgility(), -component.getTotalIntelligence());
+    }
+
+    @Override
+    public void childChanged(int power, int members, int strength, int agility, int intelligence) {
+        totalPower += power;
+        memberCount += members;
+        totalStrength += strength;
+        totalAgility += agility;
+        totalIntelligence += intelligence;
+        if (parent != null) parent.childChanged(power, members, strength, agility, intelligence);
     }
 
     @Override
@@ -28,11 +54,30 @@ public class Army implements GroupComponent {
 
     @Override
     public int getTotalPower() {
-        int total = 0;
-        for (GroupComponent child : children) {
-            total += child.getTotalPower();
-        }
-        return total;
+        return totalPower;
+    }
+
+    @Override
+    public int getMemberCount() { return memberCount; }
+    @Override
+    public int getTotalStrength() { return totalStrength; }
+    @Override
+    public int getTotalAgility() { return totalAgility; }
+    @Override
+    public int getTotalIntelligence() { return totalIntelligence; }
+
+    @Override
+    public GroupComponent getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(GroupComponent parent) {
+        this.parent = parent;
+    }
+
+    public int getChildCount() {
+        return children.size();
     }
 
     @Override
@@ -44,4 +89,4 @@ public class Army implements GroupComponent {
     public boolean isComposite() {
         return true;
     }
-}
\ No newline at end of file
+}
@@ -9,4 +9,17 @@ public interface GroupComponent {
     int getTotalPower();
     List<GroupComponent> getChildren();
     boolean isComposite();
-}
\ No newline at end of file
+
+    // totaux du sous-arbre, tenus à jour incrémentalement
+    int getMemberCount();
+    int getTotalStrength();
+    int getTotalAgility();
+    int getTotalIntelligence();
+
+    // lien vers l'Army qui contient ce composant (null à la racine), posé par Army.add/remove
+    GroupComponent getParent();
+    void setParent(GroupComponent parent);
+
+    // variations d'un enfant, à ajouter aux totaux puis à remonter vers le parent
+    void childChanged(int power, int members, int strength, int agility, int intelligence);
+}
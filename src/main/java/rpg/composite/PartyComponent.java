@@ -6,9 +6,12 @@ import rpg.core.Party;
 
 public class PartyComponent implements GroupComponent {
     private final Party party;
+    private GroupComponent parent;
 
     public PartyComponent(Party party) {
         this.party = party;
+        // les variations de la Party remontent directement dans l'arbre
+        party.addListener(this::childChanged);
     }
 
     @Override
@@ -23,7 +26,7 @@ public class PartyComponent implements GroupComponent {
 
     @Override
     public String getName() {
-        return "Party(" + party.getMembers().size() + " members)";
+        return "Party(" + party.size() + " members)";
     }
 
     @Override
@@ -31,6 +34,31 @@ public class PartyComponent implements GroupComponent {
         return party.totalPower();
     }
 
+    @Override
+    public int getMemberCount() { return party.size(); }
+    @Override
+    public int getTotalStrength() { return party.getTotalStrength(); }
+    @Override
+    public int getTotalAgility() { return party.getTotalAgility(); }
+    @Override
+    public int getTotalIntelligence() { return party.getTotalIntelligence(); }
+
+    @Override
+    public GroupComponent getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(GroupComponent parent) {
+        this.parent = parent;
+    }
+
+    // la Party a déjà ses propres totaux : on ne fait que transmettre
+    @Override
+    public void childChanged(int power, int members, int strength, int agility, int intelligence) {
+        if (parent != null) parent.childChanged(power, members, strength, agility, intelligence);
+    }
+
     @Override
     public List<GroupComponent> getChildren() {
         return Collections.emptyList();
@@ -44,4 +72,4 @@ public class PartyComponent implements GroupComponent {
     public Party getParty() {
         return party;
     }
-}
\ No newline at end of file
+}
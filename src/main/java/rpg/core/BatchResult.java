@@ -0,0 +1,107 @@
+package rpg.core;
+
+import java.util.Arrays;
+
+public class BatchResult {
+    private long fights;
+    private long winsA;
+    private long winsB;
+    private long totalTurns;
+    // histogrammes des dégâts par coup : index = dégâts infligés
+    private long[] damageA;
+    private long[] damageB;
+
+    // sans histogrammes de dégâts (mode lockstep)
+    BatchResult() {
+        this(-1, -1);
+    }
+
+    BatchResult(int maxDamageA, int maxDamageB) {
+        this.damageA = new long[maxDamageA + 1];
+        this.damageB = new long[maxDamageB + 1];
+    }
+
+    void recordFight(boolean aWins, int turns) {
+        fights++;
+        if (aWins) winsA++;
+        else winsB++;
+        totalTurns += turns;
+    }
+
+    // tableaux remplis directement par CombatKernel.resolve
+    long[] hitsA() {
+        return damageA;
+    }
+
+    long[] hitsB() {
+        return damageB;
+    }
+
+    BatchResult merge(BatchResult other) {
+        fights += other.fights;
+        winsA += other.winsA;
+        winsB += other.winsB;
+        totalTurns += other.totalTurns;
+        damageA = add(damageA, other.damageA);
+        damageB = add(damageB, other.damageB);
+        return this;
+    }
+
+    private static long[] add(long[] into, long[] from) {
+        if (from.length > into.length) into = Arrays.copyOf(into, from.length);
+        for (int i = 0; i < from.length; i++) into[i] += from[i];
+        return into;
+    }
+
+    public long getFights() {
+        return fights;
+    }
+
+    public long getWinsA() {
+        return winsA;
+    }
+
+    public long getWinsB() {
+        return winsB;
+    }
+
+    public double getWinRateA() {
+        return fights == 0 ? 0.0 : (double) winsA / fights;
+    }
+
+    public double getMeanTurns() {
+        return fights == 0 ? 0.0 : (double) totalTurns / fights;
+    }
+
+    public long[] getDamageHistogramA() {
+        return damageA.clone();
+    }
+
+    public long[] getDamageHistogramB() {
+        return damageB.clone();
+    }
+
+    public double getMeanDamageA() {
+        return mean(damageA);
+    }
+
+    public double getMeanDamageB() {
+        return mean(damageB);
+    }
+
+    private static double mean(long[] histogram) {
+        long hits = 0;
+        long sum = 0;
+        for (int d = 0; d < histogram.length; d++) {
+            hits += histogram[d];
+            sum += d * histogram[d];
+        }
+        return hits == 0 ? 0.0 : (double) sum / hits;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d fights: A wins %d (%.2f%%), B wins %d, mean turns %.2f, mean dmg A=%.2f B=%.2f",
+            fights, winsA, getWinRateA() * 100, winsB, getMeanTurns(), getMeanDamageA(), getMeanDamageB());
+    }
+}
@@ -0,0 +1,95 @@
+package rpg.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Lance N combats A vs B en parallèle (mêmes règles que CombatEngine / AttackCommand)
+public class BatchSimulator {
+    private static final int DEFAULT_CHUNK = 4096;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchSimulator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK);
+    }
+
+    public BatchSimulator(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be >= 1");
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchResult run(Character a, Character b, long fights) {
+        return run(a, b, fights, RandomSource.newSeed());
+    }
+
+    public BatchResult run(Character a, Character b, long fights, long seed) {
+        if (fights < 0) throw new IllegalArgumentException("fights must be >= 0");
+        CombatKernel kernel = CombatKernel.of(a, b);
+        return pool.invoke(new FightTask(kernel, null, 0, fights, RandomSource.seeded(seed), chunkSize));
+    }
+
+    // chaque bloc de combats est joué en lockstep (LockstepDuelBatch) ; pas d'histogramme de dégâts
+    public BatchResult runLockstep(Character a, Character b, long fights, long seed) {
+        if (fights < 0) throw new IllegalArgumentException("fights must be >= 0");
+        LockstepDuelBatch lanes = new LockstepDuelBatch(a, b);
+        return pool.invoke(new FightTask(null, lanes, 0, fights, RandomSource.seeded(seed), chunkSize));
+    }
+
+    private static final class FightTask extends RecursiveTask<BatchResult> {
+        private final CombatKernel kernel;
+        private final LockstepDuelBatch lanes;
+        private final long from;
+        private final long to;
+        private final RandomSource rng;
+        private final int chunkSize;
+
+        FightTask(CombatKernel kernel, LockstepDuelBatch lanes, long from, long to, RandomSource rng, int chunkSize) {
+            this.kernel = kernel;
+            this.lanes = lanes;
+            this.from = from;
+            this.to = to;
+            this.rng = rng;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected BatchResult compute() {
+            if (to - from <= chunkSize) {
+                return lanes != null ? runLanes() : runChunk();
+            }
+            long mid = (from + to) >>> 1;
+            // split() avant le fork : chaque sous-tâche a son propre flux, indépendant de l'ordonnancement
+            FightTask left = new FightTask(kernel, lanes, from, mid, rng.split(), chunkSize);
+            FightTask right = new FightTask(kernel, lanes, mid, to, rng, chunkSize);
+            left.fork();
+            BatchResult r = right.compute();
+            return r.merge(left.join());
+        }
+
+        private BatchResult runChunk() {
+            BatchResult result = new BatchResult(kernel.getMaxDamage(0, 1), kernel.getMaxDamage(1, 0));
+            long[] hitsA = result.hitsA();
+            long[] hitsB = result.hitsB();
+            for (long i = from; i < to; i++) {
+                long outcome = kernel.resolve(0, 1, kernel.getMaxHp(0), kernel.getMaxHp(1), 0, rng, hitsA, hitsB);
+                result.recordFight(CombatKernel.aWins(outcome), CombatKernel.turns(outcome));
+            }
+            return result;
+        }
+
+        private BatchResult runLanes() {
+            int n = (int) (to - from);
+            long[] seeds = new long[n];
+            for (int i = 0; i < n; i++) seeds[i] = rng.nextLong();
+            long[] outcomes = new long[n];
+            lanes.run(seeds, 0, n, outcomes);
+            BatchResult result = new BatchResult();
+            for (long outcome : outcomes) {
+                result.recordFight(CombatKernel.aWins(outcome), CombatKernel.turns(outcome));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package rpg.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import rpg.history.BattleHistory;
+import rpg.observer.EventBus;
+
+// Service de combats concurrents : chaque combat a son propre CombatEngine, EventBus,
+// CommandHistory et RandomSource, rien n'est partagé entre deux requêtes.
+// Un thread virtuel par combat quand la JVM en fournit (Java 21+), sinon un pool fixe.
+public class BattleService implements AutoCloseable {
+    public static class BattleOutcome {
+        private final Character winner;
+        private final BattleHistory history;
+
+        BattleOutcome(Character winner, BattleHistory history) {
+            this.winner = winner;
+            this.history = history;
+        }
+
+        public Character getWinner() { return winner; }
+        // null si l'historique n'a pas été demandé
+        public BattleHistory getHistory() { return history; }
+    }
+
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final long timeoutMillis;
+
+    public BattleService(int maxInFlight, long timeoutMillis) {
+        this(createExecutor(), maxInFlight, timeoutMillis);
+    }
+
+    public BattleService(ExecutorService executor, int maxInFlight, long timeoutMillis) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be >= 1");
+        this.executor = executor;
+        this.admission = new Semaphore(maxInFlight);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public CompletableFuture<BattleOutcome> submit(Character a, Character b, boolean recordHistory) {
+        return submit(a, b, recordHistory, RandomSource.newSeed());
+    }
+
+    // refusé immédiatement (RejectedExecutionException) si maxInFlight combats sont déjà en cours ;
+    // le futur échoue en TimeoutException si le combat dépasse timeoutMillis
+    public CompletableFuture<BattleOutcome> submit(Character a, Character b, boolean recordHistory, long seed) {
+        if (!admission.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                new RejectedExecutionException("Too many battles in flight"));
+        }
+        CompletableFuture<BattleOutcome> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> fight(a, b, recordHistory, seed), executor);
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        // le permis est rendu quand le combat se termine réellement, pas au timeout
+        result.whenComplete((outcome, error) -> admission.release());
+        return timeoutMillis > 0 ? result.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : result;
+    }
+
+    private static BattleOutcome fight(Character a, Character b, boolean recordHistory, long seed) {
+        CombatEngine engine = new CombatEngine(new EventBus());
+        if (!recordHistory) {
+            return new BattleOutcome(engine.simulate(a, b, RandomSource.seeded(seed)), null);
+        }
+        BattleHistory history = new BattleHistory(a, b, seed);
+        engine.setCurrentBattle(history);
+        Character winner = engine.simulate(a, b);
+        history.setWinner(winner);
+        return new BattleOutcome(winner, history);
+    }
+
+    public int getAvailableSlots() {
+        return admission.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor() n'existe qu'à partir de Java 21
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "battle-service");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
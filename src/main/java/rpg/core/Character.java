@@ -5,6 +5,7 @@ public class Character {
     private final int strength;
     private final int agility;
     private final int intelligence;
+    private DerivedStats derived; // calculé à la première demande ; course bénigne (objet immuable)
 
     public Character(String name, int strength, int agility, int intelligence) {
         this.name = name;
@@ -37,8 +38,22 @@ public class Character {
         return String.format("%s (STR=%d, AGI=%d, INT=%d)", name, strength, agility, intelligence);
     }
 
+    // description, puissance, PV max... calculés une fois pour ce personnage
+    public DerivedStats getDerivedStats() {
+        DerivedStats d = derived;
+        if (d == null) {
+            d = new DerivedStats(this);
+            derived = d;
+        }
+        return d;
+    }
+
+    public int getMaxHp() {
+        return getDerivedStats().getMaxHp();
+    }
+
     @Override
     public String toString() {
-        return getDescription() + " Power=" + getPowerLevel();
+        return getDerivedStats().getSummary();
     }
 }
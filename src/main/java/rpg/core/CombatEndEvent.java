@@ -0,0 +1,25 @@
+package rpg.core;
+
+public final class CombatEndEvent {
+    private final Character fighterA;
+    private final Character fighterB;
+    private final Character winner;
+    private final int turns;
+
+    public CombatEndEvent(Character fighterA, Character fighterB, Character winner, int turns) {
+        this.fighterA = fighterA;
+        this.fighterB = fighterB;
+        this.winner = winner;
+        this.turns = turns;
+    }
+
+    public Character getFighterA() { return fighterA; }
+    public Character getFighterB() { return fighterB; }
+    public Character getWinner() { return winner; }
+    public int getTurns() { return turns; }
+
+    @Override
+    public String toString() {
+        return "Winner: " + winner.getName();
+    }
+}
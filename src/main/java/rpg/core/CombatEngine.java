@@ -5,73 +5,95 @@ import rpg.command.CommandHistory;
 import rpg.history.BattleAction;
 import rpg.history.BattleHistory;
 import rpg.observer.EventBus;
+import rpg.observer.TypedEventBus;
 
 public class CombatEngine {
+    // un moteur vit longtemps et n'efface jamais son historique : on ne garde que les derniers coups
+    private static final int COMMAND_HISTORY_CAPACITY = 4096;
+
     private final EventBus eventBus;
     private final CommandHistory commandHistory;
     private BattleHistory currentBattle;
 
     public CombatEngine(EventBus eventBus) {
         this.eventBus = eventBus;
-        this.commandHistory = new CommandHistory();
+        this.commandHistory = new CommandHistory(COMMAND_HISTORY_CAPACITY);
     }
 
     public Character simulate(Character a, Character b) {
-        int hpA = Math.max(10, a.getStrength() * 10 + a.getIntelligence() * 2);
-        int hpB = Math.max(10, b.getStrength() * 10 + b.getIntelligence() * 2);
+        // la seed de l'historique courant rend le combat rejouable à l'identique
+        RandomSource random = currentBattle != null
+            ? RandomSource.seeded(currentBattle.getSeed())
+            : RandomSource.create();
+        return simulate(a, b, random);
+    }
+
+    public Character simulate(Character a, Character b, RandomSource random) {
+        int hpA = a.getMaxHp();
+        int hpB = b.getMaxHp();
+
+        // les événements sans abonné ne sont même pas construits
+        TypedEventBus typed = eventBus.typed();
+        boolean legacy = eventBus.hasObservers();
+        boolean publishTurns = typed.hasSubscribers(CombatTurnEvent.class);
 
-        eventBus.notifyObservers("COMBAT_START", a.getName() + " vs " + b.getName());
+        if (legacy) eventBus.notifyObservers("COMBAT_START", a.getName() + " vs " + b.getName());
+        if (typed.hasSubscribers(CombatStartEvent.class)) typed.publish(new CombatStartEvent(a, b, hpA, hpB));
 
         int turn = 0;
         int actionNumber = 1;
         while (hpA > 0 && hpB > 0 && turn < 1000) {
             if (turn % 2 == 0) {
-                AttackCommand cmd = new AttackCommand(a, b);
+                AttackCommand cmd = new AttackCommand(a, b, random);
                 commandHistory.execute(cmd);
                 hpB -= cmd.getDamageDealt();
-                String actionDesc = cmd.getDescription() + " (hpB=" + Math.max(0, hpB) + ")";
-                eventBus.notifyObservers("COMBAT_ACTION", actionDesc);
+                if (legacy || publishTurns) {
+                    CombatTurnEvent event = new CombatTurnEvent(turn, a, b, cmd.getDamageDealt(),
+                        Math.max(0, hpA), Math.max(0, hpB), true);
+                    if (legacy) eventBus.notifyObservers("COMBAT_ACTION", event);
+                    if (publishTurns) typed.publish(event);
+                }
                 
                 // Record action in battle history if available
                 if (currentBattle != null) {
-                    BattleAction battleAction = new BattleAction(
-                        actionNumber++,
-                        a,
-                        b,
-                        "attacks",
-                        actionDesc,
-                        cmd.getDamageDealt()
-                    );
-                    currentBattle.addAction(battleAction);
+                    currentBattle.addAction(new BattleAction(actionNumber++, a, b, "attacks",
+                        cmd.getDamageDealt(), Math.max(0, hpA), Math.max(0, hpB)));
                 }
             } else {
-                AttackCommand cmd = new AttackCommand(b, a);
+                AttackCommand cmd = new AttackCommand(b, a, random);
                 commandHistory.execute(cmd);
                 hpA -= cmd.getDamageDealt();
-                String actionDesc = cmd.getDescription() + " (hpA=" + Math.max(0, hpA) + ")";
-                eventBus.notifyObservers("COMBAT_ACTION", actionDesc);
+                if (legacy || publishTurns) {
+                    CombatTurnEvent event = new CombatTurnEvent(turn, b, a, cmd.getDamageDealt(),
+                        Math.max(0, hpA), Math.max(0, hpB), false);
+                    if (legacy) eventBus.notifyObservers("COMBAT_ACTION", event);
+                    if (publishTurns) typed.publish(event);
+                }
                 
                 // Record action in battle history if available
                 if (currentBattle != null) {
-                    BattleAction battleAction = new BattleAction(
-                        actionNumber++,
-                        b,
-                        a,
-                        "attacks",
-                        actionDesc,
-                        cmd.getDamageDealt()
-                    );
-                    currentBattle.addAction(battleAction);
+                    currentBattle.addAction(new BattleAction(actionNumber++, b, a, "attacks",
+                        cmd.getDamageDealt(), Math.max(0, hpA), Math.max(0, hpB)));
                 }
             }
             turn++;
         }
 
         Character winner = hpA > hpB ? a : b;
-        eventBus.notifyObservers("COMBAT_END", "Winner: " + winner.getName());
+        if (legacy) eventBus.notifyObservers("COMBAT_END", "Winner: " + winner.getName());
+        if (typed.hasSubscribers(CombatEndEvent.class)) typed.publish(new CombatEndEvent(a, b, winner, turn));
         return winner;
     }
 
+    // rejoue un combat à partir de (combattants, seed) sans avoir gardé ses actions
+    public static BattleHistory regenerate(Character a, Character b, long seed) {
+        BattleHistory battle = new BattleHistory(a, b, seed);
+        CombatEngine engine = new CombatEngine(new EventBus());
+        engine.setCurrentBattle(battle);
+        battle.setWinner(engine.simulate(a, b));
+        return battle;
+    }
+
     public CommandHistory getCommandHistory() {
         return commandHistory;
     }
@@ -0,0 +1,133 @@
+package rpg.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Noyau de combat sans objets : stats en tableaux parallèles (structure-of-arrays),
+// boucle de tours sans allocation. Mêmes règles et même consommation d'aléatoire que
+// CombatEngine + AttackCommand : un nextInt(DAMAGE_ROLL) par tour.
+public final class CombatKernel {
+    public static final int MAX_TURNS = 1000;
+    public static final int DAMAGE_ROLL = 10;
+
+    // résultat d'un duel empaqueté dans un long :
+    // bit 0 = A gagne, bits 1-11 = tours joués, bits 12-35 = PV restants A, bits 36-59 = PV restants B
+    private static final int TURN_SHIFT = 1;
+    private static final int HP_A_SHIFT = 12;
+    private static final int HP_B_SHIFT = 36;
+    private static final long TURN_MASK = 0x7FFL;
+    private static final long HP_MASK = 0xFFFFFFL;
+
+    private int[] strength;
+    private int[] armor;
+    private int[] maxHp;
+    private int size;
+
+    public CombatKernel() {
+        this(16);
+    }
+
+    public CombatKernel(int capacity) {
+        capacity = Math.max(1, capacity);
+        strength = new int[capacity];
+        armor = new int[capacity];
+        maxHp = new int[capacity];
+    }
+
+    public static CombatKernel of(List<? extends Character> fighters) {
+        CombatKernel kernel = new CombatKernel(fighters.size());
+        for (Character c : fighters) kernel.add(c);
+        return kernel;
+    }
+
+    public static CombatKernel of(Character... fighters) {
+        return of(Arrays.asList(fighters));
+    }
+
+    public int add(Character c) {
+        return add(c.getStrength(), c.getAgility(), c.getIntelligence());
+    }
+
+    public int add(int str, int agi, int intel) {
+        if (size == strength.length) {
+            int capacity = size * 2;
+            strength = Arrays.copyOf(strength, capacity);
+            armor = Arrays.copyOf(armor, capacity);
+            maxHp = Arrays.copyOf(maxHp, capacity);
+        }
+        strength[size] = str;
+        armor[size] = agi / 2;
+        maxHp[size] = DerivedStats.maxHp(str, intel);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxHp(int fighter) {
+        return maxHp[fighter];
+    }
+
+    // plus gros coup possible de attacker sur defender
+    public int getMaxDamage(int attacker, int defender) {
+        return Math.max(1, strength[attacker] + DAMAGE_ROLL - 1 - armor[defender]);
+    }
+
+    public int getMinDamage(int attacker, int defender) {
+        return Math.max(1, strength[attacker] - armor[defender]);
+    }
+
+    // a attaque en premier, comme dans CombatEngine.simulate
+    public long duel(int a, int b, RandomSource rng) {
+        return resolve(a, b, maxHp[a], maxHp[b], 0, rng, null, null);
+    }
+
+    // reprend un combat en cours (PV et numéro de tour donnés) ; les histogrammes
+    // de dégâts par coup sont facultatifs (null = non collectés)
+    public long resolve(int a, int b, int hpA, int hpB, int turn, RandomSource rng,
+                        long[] hitsA, long[] hitsB) {
+        final int strA = strength[a], strB = strength[b];
+        final int armorA = armor[a], armorB = armor[b];
+        while (hpA > 0 && hpB > 0 && turn < MAX_TURNS) {
+            if ((turn & 1) == 0) {
+                int dmg = Math.max(1, strA + rng.nextInt(DAMAGE_ROLL) - armorB);
+                hpB -= dmg;
+                if (hitsA != null) hitsA[dmg]++;
+            } else {
+                int dmg = Math.max(1, strB + rng.nextInt(DAMAGE_ROLL) - armorA);
+                hpA -= dmg;
+                if (hitsB != null) hitsB[dmg]++;
+            }
+            turn++;
+        }
+        return pack(hpA > hpB, turn, hpA, hpB);
+    }
+
+    static long pack(boolean aWins, int turns, int hpA, int hpB) {
+        return (aWins ? 1L : 0L)
+            | ((long) turns & TURN_MASK) << TURN_SHIFT
+            | ((long) clampHp(hpA)) << HP_A_SHIFT
+            | ((long) clampHp(hpB)) << HP_B_SHIFT;
+    }
+
+    private static int clampHp(int hp) {
+        return (int) Math.min(HP_MASK, Math.max(0, hp));
+    }
+
+    public static boolean aWins(long outcome) {
+        return (outcome & 1L) != 0;
+    }
+
+    public static int turns(long outcome) {
+        return (int) ((outcome >>> TURN_SHIFT) & TURN_MASK);
+    }
+
+    public static int remainingHpA(long outcome) {
+        return (int) ((outcome >>> HP_A_SHIFT) & HP_MASK);
+    }
+
+    public static int remainingHpB(long outcome) {
+        return (int) ((outcome >>> HP_B_SHIFT) & HP_MASK);
+    }
+}
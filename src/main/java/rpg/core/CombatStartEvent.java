@@ -0,0 +1,25 @@
+package rpg.core;
+
+public final class CombatStartEvent {
+    private final Character fighterA;
+    private final Character fighterB;
+    private final int hpA;
+    private final int hpB;
+
+    public CombatStartEvent(Character fighterA, Character fighterB, int hpA, int hpB) {
+        this.fighterA = fighterA;
+        this.fighterB = fighterB;
+        this.hpA = hpA;
+        this.hpB = hpB;
+    }
+
+    public Character getFighterA() { return fighterA; }
+    public Character getFighterB() { return fighterB; }
+    public int getHpA() { return hpA; }
+    public int getHpB() { return hpB; }
+
+    @Override
+    public String toString() {
+        return fighterA.getName() + " vs " + fighterB.getName();
+    }
+}
@@ -0,0 +1,44 @@
+package rpg.core;
+
+import rpg.history.BattleAction;
+
+// Un tour de combat (aussi la donnée de COMBAT_ACTION) ; le texte n'est construit
+// que si quelqu'un appelle toString()
+public final class CombatTurnEvent {
+    private final int turn;
+    private final Character actor;
+    private final Character target;
+    private final int damage;
+    private final int hpA;
+    private final int hpB;
+    private final boolean actorIsA;
+
+    public CombatTurnEvent(int turn, Character actor, Character target, int damage,
+                           int hpA, int hpB, boolean actorIsA) {
+        this.turn = turn;
+        this.actor = actor;
+        this.target = target;
+        this.damage = damage;
+        this.hpA = hpA;
+        this.hpB = hpB;
+        this.actorIsA = actorIsA;
+    }
+
+    public int getTurn() { return turn; }
+    public Character getActor() { return actor; }
+    public Character getTarget() { return target; }
+    public int getDamage() { return damage; }
+    public int getHpA() { return hpA; }
+    public int getHpB() { return hpB; }
+    public boolean isActorA() { return actorIsA; }
+
+    // PV de la cible après le coup
+    public int getTargetHp() {
+        return actorIsA ? hpB : hpA;
+    }
+
+    @Override
+    public String toString() {
+        return BattleAction.describe(actor, target, "attacks", damage, hpA, hpB);
+    }
+}
@@ -0,0 +1,45 @@
+package rpg.core;
+
+// Valeurs dérivées d'un personnage, calculées une seule fois (Character est immuable) et
+// partagées par les moteurs de combat, le replay et l'UI : description, puissance (chaîne de
+// décorateurs comprise), PV max, fourchette d'attaque et armure selon les règles de CombatEngine.
+public final class DerivedStats {
+    private final String description;
+    private final int powerLevel;
+    private final String summary; // Character.toString()
+    private final int maxHp;
+    private final int attackMin; // avant armure : force + [0, DAMAGE_ROLL)
+    private final int attackMax;
+    private final int armor;
+
+    DerivedStats(Character c) {
+        this.description = c.getDescription();
+        this.powerLevel = c.getPowerLevel();
+        this.summary = description + " Power=" + powerLevel;
+        this.maxHp = maxHp(c.getStrength(), c.getIntelligence());
+        this.attackMin = c.getStrength();
+        this.attackMax = c.getStrength() + CombatKernel.DAMAGE_ROLL - 1;
+        this.armor = c.getAgility() / 2;
+    }
+
+    // la formule des PV, seul endroit où elle est écrite
+    public static int maxHp(int strength, int intelligence) {
+        return Math.max(10, strength * 10 + intelligence * 2);
+    }
+
+    public String getDescription() { return description; }
+    public int getPowerLevel() { return powerLevel; }
+    public String getSummary() { return summary; }
+    public int getMaxHp() { return maxHp; }
+    public int getAttackMin() { return attackMin; }
+    public int getAttackMax() { return attackMax; }
+    public int getArmor() { return armor; }
+
+    public int getMinDamageAgainst(Character target) {
+        return Math.max(1, attackMin - target.getDerivedStats().armor);
+    }
+
+    public int getMaxDamageAgainst(Character target) {
+        return Math.max(1, attackMax - target.getDerivedStats().armor);
+    }
+}
@@ -0,0 +1,40 @@
+package rpg.core;
+
+// Résultat exact d'un duel : probabilités de victoire et loi du nombre de tours
+public class DuelOdds {
+    private final double pAWins;
+    private final double[] turnDistribution; // index = nombre total de tours à la fin du combat
+
+    DuelOdds(double pAWins, double[] turnDistribution) {
+        this.pAWins = pAWins;
+        this.turnDistribution = turnDistribution;
+    }
+
+    public double getProbabilityAWins() {
+        return pAWins;
+    }
+
+    public double getProbabilityBWins() {
+        return 1.0 - pAWins;
+    }
+
+    public double getExpectedTurns() {
+        double e = 0;
+        for (int t = 0; t < turnDistribution.length; t++) e += t * turnDistribution[t];
+        return e;
+    }
+
+    public double getTurnProbability(int turns) {
+        return turns >= 0 && turns < turnDistribution.length ? turnDistribution[turns] : 0.0;
+    }
+
+    public double[] getTurnDistribution() {
+        return turnDistribution.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("P(A wins)=%.6f, P(B wins)=%.6f, E[turns]=%.3f",
+            pAWins, getProbabilityBWins(), getExpectedTurns());
+    }
+}
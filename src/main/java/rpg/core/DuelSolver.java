@@ -0,0 +1,131 @@
+package rpg.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Calcul exact (sans tirage) d'un duel CombatEngine / AttackCommand.
+// Les coups de A et de B sont indépendants : il suffit de connaître, pour chaque camp,
+// la loi du nombre de coups nécessaires pour tuer l'autre (programmation dynamique sur
+// les PV restants), puis de combiner les deux lois en tenant compte de l'alternance
+// des tours et de la limite de CombatKernel.MAX_TURNS.
+public class DuelSolver {
+    private static final double ROLL_P = 1.0 / CombatKernel.DAMAGE_ROLL;
+
+    // profils mémorisés par (force - armure adverse, PV du défenseur, nombre de coups disponibles)
+    private final Map<Long, HitProfile> profiles = new ConcurrentHashMap<>();
+
+    public DuelOdds solve(Character a, Character b) {
+        return solveFrom(a, b, a.getMaxHp(), b.getMaxHp(), 0);
+    }
+
+    // état quelconque : PV courants et numéro du prochain tour (pair = A attaque)
+    public DuelOdds solveFrom(Character a, Character b, int hpA, int hpB, int turn) {
+        int baseA = a.getStrength() - b.getAgility() / 2;
+        int baseB = b.getStrength() - a.getAgility() / 2;
+        return solveFrom(baseA, baseB, hpA, hpB, turn);
+    }
+
+    DuelOdds solveFrom(int baseA, int baseB, int hpA, int hpB, int turn) {
+        double[] turns = new double[CombatKernel.MAX_TURNS + 1];
+        if (hpA <= 0 || hpB <= 0 || turn >= CombatKernel.MAX_TURNS) {
+            turns[Math.min(turn, CombatKernel.MAX_TURNS)] = 1.0;
+            return new DuelOdds(hpA > hpB ? 1.0 : 0.0, turns);
+        }
+
+        boolean aFirst = (turn & 1) == 0;
+        int remaining = CombatKernel.MAX_TURNS - turn;
+        int firstHits = (remaining + 1) / 2;
+        int secondHits = remaining / 2;
+
+        // X attaque au prochain tour, Y juste après
+        HitProfile x = aFirst ? profile(baseA, hpB, firstHits) : profile(baseB, hpA, firstHits);
+        HitProfile y = aFirst ? profile(baseB, hpA, secondHits) : profile(baseA, hpB, secondHits);
+
+        // X tue au bout de n coups (tour relatif 2n-1) si Y n'a pas tué avant : Ny >= n
+        double pXWins = 0;
+        double ySurvives = 1.0; // P(Ny >= n)
+        for (int n = 1; n <= firstHits; n++) {
+            if (n > 1) ySurvives -= y.killAt(n - 1);
+            double p = x.killAt(n) * ySurvives;
+            turns[turn + 2 * n - 1] += p;
+            pXWins += p;
+        }
+
+        // Y tue au bout de n coups (tour relatif 2n) si X n'a pas encore tué : Nx > n
+        double xSurvives = 1.0; // P(Nx > n)
+        for (int n = 1; n <= secondHits; n++) {
+            xSurvives -= x.killAt(n);
+            turns[turn + 2 * n] += y.killAt(n) * xSurvives;
+        }
+
+        // personne n'est mort à la limite : comme CombatEngine, victoire de A si hpA > hpB
+        double pAAtLimit = 0;
+        double pLimit = x.pNeverKills * y.pNeverKills;
+        if (pLimit > 0) {
+            double[] hpOfA = aFirst ? y.survivors : x.survivors;
+            double[] hpOfB = aFirst ? x.survivors : y.survivors;
+            double cumB = 0; // P(hpB < h)
+            for (int h = 1; h < hpOfA.length; h++) {
+                if (h - 1 < hpOfB.length) cumB += hpOfB[h - 1];
+                pAAtLimit += hpOfA[h] * cumB;
+            }
+            turns[CombatKernel.MAX_TURNS] += pLimit;
+        }
+
+        double pAWins = aFirst ? pXWins : 1.0 - pXWins - pLimit;
+        return new DuelOdds(pAWins + pAAtLimit, turns);
+    }
+
+    public void clear() {
+        profiles.clear();
+    }
+
+    private HitProfile profile(int base, int hp, int hits) {
+        // en dessous de -(DAMAGE_ROLL - 1) tous les coups font 1 : même profil
+        int b = Math.max(base, 1 - CombatKernel.DAMAGE_ROLL);
+        long key = ((long) (b + CombatKernel.DAMAGE_ROLL) << 48) | ((long) hits << 32) | (hp & 0xFFFFFFFFL);
+        return profiles.computeIfAbsent(key, k -> new HitProfile(b, hp, hits));
+    }
+
+    // loi du nombre de coups pour tuer un défenseur de hp PV, en au plus hits coups
+    private static final class HitProfile {
+        final double[] kill;      // kill[n] = P(mort exactement au n-ième coup)
+        final double[] survivors; // survivors[h] = P(encore h PV après tous les coups)
+        final double pNeverKills;
+
+        HitProfile(int base, int hp, int hits) {
+            kill = new double[hits + 1];
+            double[] cur = new double[hp + 1];
+            double[] next = new double[hp + 1];
+            cur[hp] = 1.0;
+            double alive = 1.0;
+            for (int n = 1; n <= hits && alive > 0; n++) {
+                Arrays.fill(next, 0.0);
+                double killed = 0;
+                for (int h = 1; h <= hp; h++) {
+                    double p = cur[h];
+                    if (p == 0) continue;
+                    p *= ROLL_P;
+                    for (int k = 0; k < CombatKernel.DAMAGE_ROLL; k++) {
+                        int left = h - Math.max(1, base + k);
+                        if (left <= 0) killed += p;
+                        else next[left] += p;
+                    }
+                }
+                kill[n] = killed;
+                alive = 0;
+                for (int h = 1; h <= hp; h++) alive += next[h];
+                double[] tmp = cur;
+                cur = next;
+                next = tmp;
+            }
+            survivors = cur;
+            pNeverKills = alive;
+        }
+
+        double killAt(int n) {
+            return n < kill.length ? kill[n] : 0.0;
+        }
+    }
+}
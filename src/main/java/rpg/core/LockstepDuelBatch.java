@@ -0,0 +1,125 @@
+package rpg.core;
+
+import java.util.Arrays;
+import rpg.history.BattleHistory;
+
+// Beaucoup de duels A vs B indépendants joués en parallèle de voies (lanes) : tous les
+// combats partent du tour 0, donc au même tour c'est toujours le même camp qui frappe.
+// Chaque tour est une boucle sans branche sur des tableaux primitifs ; les combats déjà
+// terminés sont masqués (PV et compteur de tours figés) au lieu d'être retirés.
+// La voie i donne exactement CombatKernel.duel(0, 1, RandomSource.seeded(seeds[i])).
+public final class LockstepDuelBatch {
+    // en dessous, la mise en place des tableaux coûte plus que la boucle scalaire
+    static final int MIN_LANES = 8;
+
+    private final CombatKernel kernel;
+    private final int strA, strB;
+    private final int armorA, armorB;
+
+    public LockstepDuelBatch(Character a, Character b) {
+        this.kernel = CombatKernel.of(a, b);
+        this.strA = a.getStrength();
+        this.strB = b.getStrength();
+        this.armorA = a.getAgility() / 2;
+        this.armorB = b.getAgility() / 2;
+    }
+
+    public long[] run(long[] seeds) {
+        long[] outcomes = new long[seeds.length];
+        run(seeds, 0, seeds.length, outcomes);
+        return outcomes;
+    }
+
+    // outcomes[i - from] : même format que CombatKernel
+    public void run(long[] seeds, int from, int to, long[] outcomes) {
+        int n = to - from;
+        if (n < MIN_LANES) {
+            runScalar(seeds, from, to, outcomes);
+            return;
+        }
+        long[] state = Arrays.copyOfRange(seeds, from, to);
+        int[] hpA = new int[n];
+        int[] hpB = new int[n];
+        int[] turns = new int[n];
+        int[] lane = new int[n]; // voie d'origine, les voies vivantes étant recompactées en tête
+        Arrays.fill(hpA, kernel.getMaxHp(0));
+        Arrays.fill(hpB, kernel.getMaxHp(1));
+        for (int i = 0; i < n; i++) lane[i] = i;
+
+        int live = n;
+        for (int turn = 0; turn < CombatKernel.MAX_TURNS && live > 0; turn++) {
+            int active = (turn & 1) == 0
+                ? strike(state, hpA, hpB, turns, strA, armorB, live)
+                : strike(state, hpB, hpA, turns, strB, armorA, live);
+            // quand la moitié des voies est finie, on les sort pour ne plus les parcourir
+            if (active <= live / 2) {
+                live = compact(state, hpA, hpB, turns, lane, live, outcomes);
+            }
+        }
+        for (int i = 0; i < live; i++) {
+            outcomes[lane[i]] = CombatKernel.pack(hpA[i] > hpB[i], turns[i], hpA[i], hpB[i]);
+        }
+    }
+
+    private static int compact(long[] state, int[] hpA, int[] hpB, int[] turns, int[] lane,
+                               int live, long[] outcomes) {
+        int kept = 0;
+        for (int i = 0; i < live; i++) {
+            if (hpA[i] > 0 && hpB[i] > 0) {
+                state[kept] = state[i];
+                hpA[kept] = hpA[i];
+                hpB[kept] = hpB[i];
+                turns[kept] = turns[i];
+                lane[kept] = lane[i];
+                kept++;
+            } else {
+                outcomes[lane[i]] = CombatKernel.pack(hpA[i] > hpB[i], turns[i], hpA[i], hpB[i]);
+            }
+        }
+        return kept;
+    }
+
+    // fallback scalaire, un combat après l'autre
+    public void runScalar(long[] seeds, int from, int to, long[] outcomes) {
+        for (int i = from; i < to; i++) {
+            outcomes[i - from] = kernel.duel(0, 1, RandomSource.seeded(seeds[i]));
+        }
+    }
+
+    // un tour pour toutes les voies : le tirage reproduit SplitMixRandom.nextInt(DAMAGE_ROLL)
+    private static int strike(long[] state, int[] attackerHp, int[] defenderHp, int[] turns,
+                              int str, int armor, int n) {
+        int active = 0;
+        for (int i = 0; i < n; i++) {
+            long z = SplitMixRandom.mix64(state[i] += SplitMixRandom.GOLDEN_GAMMA);
+            int roll = (int) (((z >>> 32) * CombatKernel.DAMAGE_ROLL) >>> 32);
+            int dmg = Math.max(1, str + roll - armor);
+            int alive = (attackerHp[i] > 0 & defenderHp[i] > 0) ? 1 : 0;
+            defenderHp[i] -= dmg & -alive;
+            turns[i] += alive;
+            active += alive & (defenderHp[i] > 0 ? 1 : 0);
+        }
+        return active;
+    }
+
+    // contrôle de cohérence : compare chaque voie au noyau scalaire et, sur les
+    // premières voies, à CombatEngine lui-même. Renvoie le nombre de voies divergentes.
+    public static int verifyAgainstEngine(Character a, Character b, long[] seeds, int engineSamples) {
+        LockstepDuelBatch batch = new LockstepDuelBatch(a, b);
+        long[] lanes = batch.run(seeds);
+        long[] scalar = new long[seeds.length];
+        batch.runScalar(seeds, 0, seeds.length, scalar);
+
+        int mismatches = 0;
+        for (int i = 0; i < seeds.length; i++) {
+            boolean same = lanes[i] == scalar[i];
+            if (same && i < engineSamples) {
+                BattleHistory battle = CombatEngine.regenerate(a, b, seeds[i]);
+                same = battle.getActions().size() == CombatKernel.turns(lanes[i])
+                    && (a == b || (battle.getWinner() == a) == CombatKernel.aWins(lanes[i]));
+            }
+            if (!same) mismatches++;
+        }
+        return mismatches;
+    }
+}
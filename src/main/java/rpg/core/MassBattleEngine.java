@@ -0,0 +1,226 @@
+package rpg.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import rpg.composite.GroupComponent;
+import rpg.composite.PartyComponent;
+
+// Bataille entre deux arbres GroupComponent (armées, parties).
+// Chaque round, les survivants des deux camps sont appariés (couples disjoints) et
+// chaque escarmouche est un duel CombatKernel joué en parallèle sur un pool
+// work-stealing. Les blessures persistent d'un round à l'autre ; les surnuméraires
+// du camp le plus nombreux attendent le round suivant.
+public class MassBattleEngine {
+    public enum TargetSelection {
+        RANDOM,   // appariement aléatoire à chaque round
+        BY_POWER  // le plus puissant contre le plus puissant
+    }
+
+    private static final int DEFAULT_MAX_ROUNDS = 1000;
+    private static final int SKIRMISH_CHUNK = 512;
+
+    private final ForkJoinPool pool;
+    private final TargetSelection targeting;
+    private final int maxRounds;
+
+    public MassBattleEngine() {
+        this(ForkJoinPool.commonPool(), TargetSelection.RANDOM, DEFAULT_MAX_ROUNDS);
+    }
+
+    public MassBattleEngine(ForkJoinPool pool, TargetSelection targeting, int maxRounds) {
+        this.pool = pool;
+        this.targeting = targeting;
+        this.maxRounds = maxRounds;
+    }
+
+    public MassBattleResult fight(GroupComponent sideA, GroupComponent sideB) {
+        return fight(sideA, sideB, RandomSource.newSeed());
+    }
+
+    public MassBattleResult fight(GroupComponent sideA, GroupComponent sideB, long seed) {
+        Roster roster = new Roster();
+        roster.addTree(sideA, -1);
+        int sizeA = roster.size;
+        roster.addTree(sideB, -1);
+        int n = roster.size;
+
+        CombatKernel kernel = roster.kernel;
+        int[] hp = new int[n];
+        for (int i = 0; i < n; i++) hp[i] = kernel.getMaxHp(i);
+
+        int[] liveA = new int[sizeA];
+        int[] liveB = new int[n - sizeA];
+        for (int i = 0; i < sizeA; i++) liveA[i] = i;
+        for (int i = sizeA; i < n; i++) liveB[i - sizeA] = i;
+        int countA = liveA.length;
+        int countB = liveB.length;
+        if (targeting == TargetSelection.BY_POWER) {
+            // ordre fixe : la compaction le conserve, inutile de retrier à chaque round
+            sortByPower(liveA, roster.characters);
+            sortByPower(liveB, roster.characters);
+        }
+
+        RandomSource rng = RandomSource.seeded(seed);
+        int round = 0;
+        while (countA > 0 && countB > 0 && round < maxRounds) {
+            if (targeting == TargetSelection.RANDOM) {
+                shuffle(liveA, countA, rng);
+                shuffle(liveB, countB, rng);
+            }
+            int pairs = Math.min(countA, countB);
+            // le camp qui frappe en premier alterne d'un round à l'autre
+            pool.invoke(new SkirmishTask(kernel, hp, liveA, liveB, 0, pairs, rng.split(), round & 1));
+            countA = compact(liveA, countA, hp);
+            countB = compact(liveB, countB, hp);
+            round++;
+        }
+
+        return buildResult(sideA, sideB, roster, sizeA, hp, countA, countB, round);
+    }
+
+    private MassBattleResult buildResult(GroupComponent sideA, GroupComponent sideB, Roster roster,
+                                         int sizeA, int[] hp, int countA, int countB, int rounds) {
+        List<Character> casualtiesA = new ArrayList<>();
+        List<Character> casualtiesB = new ArrayList<>();
+        int[] deadPerGroup = new int[roster.groups.size()];
+        Map<Party, Set<Character>> deadByParty = new IdentityHashMap<>();
+        long hpLeftA = 0;
+        long hpLeftB = 0;
+        for (int i = 0; i < roster.size; i++) {
+            if (hp[i] > 0) {
+                if (i < sizeA) hpLeftA += hp[i];
+                else hpLeftB += hp[i];
+                continue;
+            }
+            Character c = roster.characters.get(i);
+            (i < sizeA ? casualtiesA : casualtiesB).add(c);
+            deadPerGroup[roster.groupOf[i]]++;
+            deadByParty.computeIfAbsent(roster.parties.get(i), p -> new HashSet<>()).add(c);
+        }
+
+        // les groupes sont enregistrés en préordre (parent avant enfants) : on remonte les pertes
+        Map<GroupComponent, Integer> casualtiesByGroup = new IdentityHashMap<>();
+        for (int g = deadPerGroup.length - 1; g >= 0; g--) {
+            int parent = roster.groupParents.get(g);
+            if (parent >= 0) deadPerGroup[parent] += deadPerGroup[g];
+            casualtiesByGroup.put(roster.groups.get(g), deadPerGroup[g]);
+        }
+
+        GroupComponent winner;
+        if (countA > 0 && countB == 0) winner = sideA;
+        else if (countB > 0 && countA == 0) winner = sideB;
+        else if (hpLeftA != hpLeftB) winner = hpLeftA > hpLeftB ? sideA : sideB;
+        else winner = null;
+
+        return new MassBattleResult(sideA, sideB, winner, rounds, countA, countB,
+            casualtiesA, casualtiesB, casualtiesByGroup, deadByParty);
+    }
+
+    private static void shuffle(int[] live, int count, RandomSource rng) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = live[i];
+            live[i] = live[j];
+            live[j] = tmp;
+        }
+    }
+
+    private static void sortByPower(int[] live, List<Character> characters) {
+        long[] keys = new long[live.length];
+        for (int i = 0; i < live.length; i++) {
+            int power = characters.get(live[i]).getPowerLevel();
+            keys[i] = ((long) -power << 32) | live[i]; // décroissant, puis par indice
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < live.length; i++) live[i] = (int) keys[i];
+    }
+
+    // garde les survivants en tête, dans le même ordre
+    private static int compact(int[] live, int count, int[] hp) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (hp[live[i]] > 0) live[kept++] = live[i];
+        }
+        return kept;
+    }
+
+    // combattants aplatis : stats dans un CombatKernel, rattachement Party / groupe à côté
+    private static final class Roster {
+        final CombatKernel kernel = new CombatKernel(64);
+        final List<Character> characters = new ArrayList<>();
+        final List<Party> parties = new ArrayList<>();
+        final List<GroupComponent> groups = new ArrayList<>();
+        final List<Integer> groupParents = new ArrayList<>();
+        int[] groupOf = new int[64];
+        int size;
+
+        void addTree(GroupComponent group, int parent) {
+            int g = groups.size();
+            groups.add(group);
+            groupParents.add(parent);
+            if (group instanceof PartyComponent) {
+                Party party = ((PartyComponent) group).getParty();
+                for (Character c : party.getMembers()) addFighter(c, party, g);
+            } else {
+                for (GroupComponent child : group.getChildren()) addTree(child, g);
+            }
+        }
+
+        private void addFighter(Character c, Party party, int group) {
+            if (size == groupOf.length) groupOf = Arrays.copyOf(groupOf, size * 2);
+            kernel.add(c);
+            characters.add(c);
+            parties.add(party);
+            groupOf[size++] = group;
+        }
+    }
+
+    // escarmouches [from, to) : couples disjoints, donc écritures dans hp sans conflit
+    private static final class SkirmishTask extends RecursiveAction {
+        private final CombatKernel kernel;
+        private final int[] hp;
+        private final int[] liveA;
+        private final int[] liveB;
+        private final int from;
+        private final int to;
+        private final RandomSource rng;
+        private final int firstTurn;
+
+        SkirmishTask(CombatKernel kernel, int[] hp, int[] liveA, int[] liveB,
+                     int from, int to, RandomSource rng, int firstTurn) {
+            this.kernel = kernel;
+            this.hp = hp;
+            this.liveA = liveA;
+            this.liveB = liveB;
+            this.from = from;
+            this.to = to;
+            this.rng = rng;
+            this.firstTurn = firstTurn;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SKIRMISH_CHUNK) {
+                for (int k = from; k < to; k++) {
+                    int a = liveA[k];
+                    int b = liveB[k];
+                    long outcome = kernel.resolve(a, b, hp[a], hp[b], firstTurn, rng, null, null);
+                    hp[a] = CombatKernel.remainingHpA(outcome);
+                    hp[b] = CombatKernel.remainingHpB(outcome);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SkirmishTask left = new SkirmishTask(kernel, hp, liveA, liveB, from, mid, rng.split(), firstTurn);
+            SkirmishTask right = new SkirmishTask(kernel, hp, liveA, liveB, mid, to, rng, firstTurn);
+            invokeAll(left, right);
+        }
+    }
+}
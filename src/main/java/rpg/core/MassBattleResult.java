@@ -0,0 +1,66 @@
+package rpg.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import rpg.composite.GroupComponent;
+
+public class MassBattleResult {
+    private final GroupComponent sideA;
+    private final GroupComponent sideB;
+    private final GroupComponent winner;
+    private final int rounds;
+    private final int survivorsA;
+    private final int survivorsB;
+    private final List<Character> casualtiesA;
+    private final List<Character> casualtiesB;
+    private final Map<GroupComponent, Integer> casualtiesByGroup;
+    private final Map<Party, Set<Character>> deadByParty;
+
+    MassBattleResult(GroupComponent sideA, GroupComponent sideB, GroupComponent winner, int rounds,
+                     int survivorsA, int survivorsB,
+                     List<Character> casualtiesA, List<Character> casualtiesB,
+                     Map<GroupComponent, Integer> casualtiesByGroup,
+                     Map<Party, Set<Character>> deadByParty) {
+        this.sideA = sideA;
+        this.sideB = sideB;
+        this.winner = winner;
+        this.rounds = rounds;
+        this.survivorsA = survivorsA;
+        this.survivorsB = survivorsB;
+        this.casualtiesA = casualtiesA;
+        this.casualtiesB = casualtiesB;
+        this.casualtiesByGroup = casualtiesByGroup;
+        this.deadByParty = deadByParty;
+    }
+
+    // répercute les pertes dans l'arbre : les morts sont retirés de leur Party
+    public void applyCasualties() {
+        for (Map.Entry<Party, Set<Character>> e : deadByParty.entrySet()) {
+            e.getKey().removeAll(e.getValue());
+        }
+    }
+
+    public GroupComponent getSideA() { return sideA; }
+    public GroupComponent getSideB() { return sideB; }
+    // null en cas d'égalité
+    public GroupComponent getWinner() { return winner; }
+    public int getRounds() { return rounds; }
+    public int getSurvivorsA() { return survivorsA; }
+    public int getSurvivorsB() { return survivorsB; }
+    public List<Character> getCasualtiesA() { return Collections.unmodifiableList(casualtiesA); }
+    public List<Character> getCasualtiesB() { return Collections.unmodifiableList(casualtiesB); }
+
+    // pertes cumulées d'un noeud (Army ou PartyComponent) et de tout son sous-arbre
+    public int getCasualties(GroupComponent group) {
+        return casualtiesByGroup.getOrDefault(group, 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s vs %s - Winner: %s after %d rounds (survivors %d / %d, casualties %d / %d)",
+            sideA.getName(), sideB.getName(), winner != null ? winner.getName() : "draw", rounds,
+            survivorsA, survivorsB, casualtiesA.size(), casualtiesB.size());
+    }
+}
@@ -0,0 +1,187 @@
+package rpg.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import rpg.decorator.Capability;
+import rpg.decorator.CharacterDecorator;
+import rpg.decorator.CompiledCharacter;
+import rpg.settings.GameSettings;
+
+// Cache LRU borné devant les simulateurs. Le résultat d'un combat ne dépend que des stats
+// de base (et des capacités), pas du nom : deux personnages identiques partagent l'entrée.
+// Vidé automatiquement quand les règles de GameSettings changent.
+public class MatchupCache<V> {
+    private final int capacity;
+    private final BiFunction<Character, Character, V> loader;
+    private final LinkedHashMap<MatchupKey, V> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long rulesVersion;
+    private long generation; // incrémenté à chaque vidage, sous le verrou
+
+    public MatchupCache(int capacity, BiFunction<Character, Character, V> loader) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.capacity = capacity;
+        this.loader = loader;
+        this.rulesVersion = GameSettings.getInstance().getRulesVersion();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MatchupKey, V> eldest) {
+                if (size() > MatchupCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // probabilités exactes (DuelSolver)
+    public static MatchupCache<DuelOdds> exact(int capacity) {
+        DuelSolver solver = new DuelSolver();
+        return new MatchupCache<>(capacity, solver::solve);
+    }
+
+    // estimation Monte Carlo (BatchSimulator)
+    public static MatchupCache<BatchResult> sampled(int capacity, BatchSimulator simulator, long fights) {
+        return new MatchupCache<>(capacity, (a, b) -> simulator.run(a, b, fights));
+    }
+
+    public V get(Character a, Character b) {
+        MatchupKey key = new MatchupKey(Signature.of(a), Signature.of(b));
+        long loadedIn;
+        synchronized (entries) {
+            checkRulesVersion();
+            loadedIn = generation;
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        // calcul hors verrou : deux threads peuvent calculer la même entrée, le dernier gagne.
+        // Si les règles ont changé (ou le cache a été vidé) pendant le calcul, le résultat est
+        // rendu mais pas mémorisé.
+        V value = loader.apply(a, b);
+        synchronized (entries) {
+            checkRulesVersion();
+            if (generation == loadedIn) entries.put(key, value);
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    private void checkRulesVersion() {
+        long current = GameSettings.getInstance().getRulesVersion();
+        if (current != rulesVersion) {
+            entries.clear();
+            generation++;
+            rulesVersion = current;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MatchupCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.2f%%]",
+            size(), capacity, getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+    }
+
+    // forme canonique d'un combattant : stats de base + ensemble trié des décorateurs
+    private static final class Signature {
+        final int strength;
+        final int agility;
+        final int intelligence;
+        final List<String> decorators;
+
+        private Signature(int strength, int agility, int intelligence, List<String> decorators) {
+            this.strength = strength;
+            this.agility = agility;
+            this.intelligence = intelligence;
+            this.decorators = decorators;
+        }
+
+        static Signature of(Character c) {
+            List<String> decorators = new ArrayList<>();
+            Character cur = c;
+            while (cur instanceof CharacterDecorator) {
+                decorators.add(cur.getClass().getName());
+                cur = ((CharacterDecorator) cur).getWrappedCharacter();
+            }
+            if (cur instanceof CompiledCharacter) {
+                CompiledCharacter compiled = (CompiledCharacter) cur;
+                for (Capability cap : compiled.getLayers()) decorators.add(cap.getType().getName());
+                cur = compiled.getBase();
+            }
+            Collections.sort(decorators);
+            return new Signature(cur.getStrength(), cur.getAgility(), cur.getIntelligence(), decorators);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Signature)) return false;
+            Signature s = (Signature) o;
+            return strength == s.strength && agility == s.agility && intelligence == s.intelligence
+                && decorators.equals(s.decorators);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(strength, agility, intelligence, decorators);
+        }
+    }
+
+    // ordonné : (A, B) et (B, A) diffèrent, A frappe en premier
+    private static final class MatchupKey {
+        final Signature a;
+        final Signature b;
+
+        MatchupKey(Signature a, Signature b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MatchupKey)) return false;
+            MatchupKey k = (MatchupKey) o;
+            return a.equals(k.a) && b.equals(k.b);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * a.hashCode() + b.hashCode();
+        }
+    }
+}
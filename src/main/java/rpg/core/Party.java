@@ -1,23 +1,83 @@
 package rpg.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+// Les totaux (puissance, stats) sont tenus à jour à chaque ajout/retrait : les lire est en O(1)
+// et la chaîne de décorateurs d'un membre n'est parcourue qu'une fois, à son ajout.
+// Les écouteurs (PartyComponent) reçoivent les variations pour les remonter dans l'arbre.
 public class Party {
+    public interface Listener {
+        void aggregatesChanged(int power, int members, int strength, int agility, int intelligence);
+    }
+
     private final List<Character> members = new ArrayList<>();
+    private final List<Listener> listeners = new ArrayList<>(1);
+    private int totalPower;
+    private int totalStrength;
+    private int totalAgility;
+    private int totalIntelligence;
 
     public void add(Character c) {
         members.add(c);
+        changed(c, 1);
     }
 
     public void remove(Character c) {
-        members.remove(c);
+        if (members.remove(c)) changed(c, -1);
+    }
+
+    // retrait groupé en O(n) (remove() un par un serait quadratique sur une grosse party)
+    public void removeAll(Collection<Character> toRemove) {
+        Set<Character> set = toRemove instanceof Set ? (Set<Character>) toRemove : new HashSet<>(toRemove);
+        int power = 0, count = 0, str = 0, agi = 0, intel = 0;
+        for (Character c : members) {
+            if (!set.contains(c)) continue;
+            power += c.getDerivedStats().getPowerLevel();
+            count++;
+            str += c.getStrength();
+            agi += c.getAgility();
+            intel += c.getIntelligence();
+        }
+        if (count == 0) return;
+        members.removeIf(set::contains);
+        apply(-power, -count, -str, -agi, -intel);
+    }
+
+    private void changed(Character c, int sign) {
+        // puissance mise en cache : le retrait soustrait exactement ce que l'ajout a compté
+        apply(sign * c.getDerivedStats().getPowerLevel(), sign, sign * c.getStrength(), sign * c.getAgility(), sign * c.getIntelligence());
+    }
+
+    private void apply(int power, int count, int str, int agi, int intel) {
+        totalPower += power;
+        totalStrength += str;
+        totalAgility += agi;
+        totalIntelligence += intel;
+        for (Listener l : listeners) l.aggregatesChanged(power, count, str, agi, intel);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
     }
 
     public int totalPower() {
-        int sum = 0;
-        for (Character c : members) sum += c.getPowerLevel();
-        return sum;
+        return totalPower;
+    }
+
+    public int getTotalStrength() { return totalStrength; }
+    public int getTotalAgility() { return totalAgility; }
+    public int getTotalIntelligence() { return totalIntelligence; }
+
+    public int size() {
+        return members.size();
     }
 
     public List<Character> getMembers() {
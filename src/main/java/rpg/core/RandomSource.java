@@ -0,0 +1,36 @@
+package rpg.core;
+
+// Source d'aléatoire injectée par combat : reproductible quand elle est seedée,
+// et sans contention entre threads (chaque combat / worker a la sienne)
+public interface RandomSource {
+    // entier uniforme dans [0, bound)
+    int nextInt(int bound);
+
+    long nextLong();
+
+    // nouveau flux indépendant, dérivé de celui-ci
+    RandomSource split();
+
+    static RandomSource seeded(long seed) {
+        return new SplitMixRandom(seed);
+    }
+
+    // flux numéro stream de seed : des numéros voisins donnent des flux sans rapport entre eux
+    // (seeded(seed + stream) ne ferait que décaler la même suite)
+    static RandomSource seeded(long seed, long stream) {
+        return new SplitMixRandom(SplitMixRandom.mix64(seed ^ SplitMixRandom.mix64(stream + SplitMixRandom.GOLDEN_GAMMA)));
+    }
+
+    static RandomSource create() {
+        return new SplitMixRandom(newSeed());
+    }
+
+    // générateur par thread, non reproductible (chemins historiques sans seed)
+    static RandomSource shared() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    static long newSeed() {
+        return SplitMixRandom.newSeed();
+    }
+}
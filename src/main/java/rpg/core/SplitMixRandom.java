@@ -0,0 +1,44 @@
+package rpg.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// SplitMix64 : un seul long d'état, pas de synchronisation
+public final class SplitMixRandom implements RandomSource {
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final AtomicLong SEEDER =
+        new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        this.state = seed;
+    }
+
+    static long newSeed() {
+        return mix64(SEEDER.getAndAdd(GOLDEN_GAMMA));
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        // multiply-shift sur les 32 bits hauts : pas de division ni de boucle de rejet
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplitMixRandom(nextLong());
+    }
+}
@@ -0,0 +1,24 @@
+package rpg.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+final class ThreadLocalRandomSource implements RandomSource {
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {}
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    @Override
+    public RandomSource split() {
+        return RandomSource.create();
+    }
+}
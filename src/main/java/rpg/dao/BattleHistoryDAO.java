@@ -0,0 +1,244 @@
+package rpg.dao;
+
+import rpg.core.Character;
+import rpg.decorator.Decorators;
+import rpg.history.BattleAction;
+import rpg.history.BattleHistory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Persistance des combats : une ligne "battle" + une ligne "battle_action" par action.
+// Un combat est écrit en une seule transaction, les actions par lots JDBC (addBatch),
+// au lieu d'un aller-retour par ligne. En lecture, les actions de tous les combats retenus
+// viennent d'une seule requête (jointure sur battle), pas d'une requête par combat.
+public class BattleHistoryDAO implements DAO<BattleHistory> {
+    private static final int BATCH_SIZE = 500;
+    private static final String BATTLE_COLUMNS =
+            "id,seq,name,played_at,seed,f1_name,f1_strength,f1_agility,f1_intelligence,f1_decorators,"
+            + "f2_name,f2_strength,f2_agility,f2_intelligence,f2_decorators,winner,winner_side";
+
+    public BattleHistoryDAO() {
+        // rien
+    }
+
+    // --------------------- Écriture ---------------------
+    @Override
+    public void save(BattleHistory battle) {
+        saveAll(List.of(battle));
+    }
+
+    // plusieurs combats dans la même transaction
+    public void saveAll(List<BattleHistory> battles) {
+        String battleSql = "INSERT OR REPLACE INTO battle(" + BATTLE_COLUMNS + ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        String clearSql = "DELETE FROM battle_action WHERE battle_id=?";
+        String actionSql = "INSERT INTO battle_action(battle_id,idx,round,actor,action_type,damage,hp_a,hp_b,description,modifiable) "
+                + "VALUES (?,?,?,?,?,?,?,?,?,?)";
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement bs = c.prepareStatement(battleSql);
+                 PreparedStatement cs = c.prepareStatement(clearSql);
+                 PreparedStatement as = c.prepareStatement(actionSql)) {
+                for (BattleHistory battle : battles) {
+                    bindBattle(bs, battle);
+                    bs.executeUpdate();
+                    cs.setString(1, battle.getBattleId());
+                    cs.executeUpdate();
+                    insertActions(as, battle);
+                }
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("save failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void bindBattle(PreparedStatement ps, BattleHistory battle) throws SQLException {
+        ps.setString(1, battle.getBattleId());
+        ps.setLong(2, battle.getSequence());
+        ps.setString(3, battle.getBattleName());
+        ps.setLong(4, toEpochMillis(battle.getTimestamp()));
+        ps.setLong(5, battle.getSeed());
+        bindFighter(ps, 6, battle.getFighter1());
+        bindFighter(ps, 11, battle.getFighter2());
+        Character winner = battle.getWinner();
+        ps.setString(16, winner != null ? winner.getName() : null);
+        // par position : deux combattants peuvent porter le même nom
+        ps.setInt(17, winnerSide(battle));
+    }
+
+    private static int winnerSide(BattleHistory battle) {
+        Character winner = battle.getWinner();
+        if (winner == null) return 0;
+        if (winner == battle.getFighter1()) return 1;
+        if (winner == battle.getFighter2()) return 2;
+        if (winner.getName().equals(battle.getFighter1().getName())) return 1;
+        return winner.getName().equals(battle.getFighter2().getName()) ? 2 : 0;
+    }
+
+    private void bindFighter(PreparedStatement ps, int first, Character fighter) throws SQLException {
+        Character base = Decorators.unwrap(fighter);
+        ps.setString(first, base.getName());
+        ps.setInt(first + 1, base.getStrength());
+        ps.setInt(first + 2, base.getAgility());
+        ps.setInt(first + 3, base.getIntelligence());
+        ps.setString(first + 4, Decorators.serialize(fighter));
+    }
+
+    private void insertActions(PreparedStatement ps, BattleHistory battle) throws SQLException {
+        List<BattleAction> actions = battle.getActions();
+        for (int i = 0; i < actions.size(); i++) {
+            BattleAction action = actions.get(i);
+            ps.setString(1, battle.getBattleId());
+            ps.setInt(2, i);
+            ps.setInt(3, action.getRound());
+            // seuls les deux combattants sont représentés ; tout autre acteur est rattaché à fighter1
+            ps.setInt(4, action.getActor() == battle.getFighter2() ? 2 : 1);
+            ps.setString(5, action.getActionType());
+            ps.setInt(6, action.getDamage());
+            ps.setInt(7, action.getHpA());
+            ps.setInt(8, action.getHpB());
+            ps.setString(9, action.hasCustomDescription() ? action.getDescription() : null);
+            ps.setInt(10, action.isModifiable() ? 1 : 0);
+            ps.addBatch();
+            if ((i + 1) % BATCH_SIZE == 0) ps.executeBatch();
+        }
+        ps.executeBatch();
+    }
+
+    public boolean remove(BattleHistory battle) {
+        try (Connection c = Db.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement as = c.prepareStatement("DELETE FROM battle_action WHERE battle_id=?");
+                 PreparedStatement bs = c.prepareStatement("DELETE FROM battle WHERE id=?")) {
+                as.setString(1, battle.getBattleId());
+                as.executeUpdate();
+                bs.setString(1, battle.getBattleId());
+                boolean removed = bs.executeUpdate() > 0;
+                c.commit();
+                return removed;
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("remove failed: " + e.getMessage(), e);
+        }
+    }
+
+    // --------------------- Lecture ---------------------
+    // clé = battleId
+    @Override
+    public BattleHistory findByName(String battleId) {
+        List<BattleHistory> found = query("WHERE id=?", "findByName", battleId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public List<BattleHistory> findAll() {
+        return query("", "findAll");
+    }
+
+    public List<BattleHistory> findByFighter(String name) {
+        return query("WHERE f1_name=? OR f2_name=?", "findByFighter", name, name);
+    }
+
+    public List<BattleHistory> findByWinner(String name) {
+        return query("WHERE (winner_side=1 AND f1_name=?) OR (winner_side=2 AND f2_name=?)",
+                "findByWinner", name, name);
+    }
+
+    // bornes incluses
+    public List<BattleHistory> findBetween(LocalDateTime from, LocalDateTime to) {
+        return query("WHERE played_at BETWEEN ? AND ?", "findBetween", toEpochMillis(from), toEpochMillis(to));
+    }
+
+    private List<BattleHistory> query(String where, String operation, Object... params) {
+        String sql = "SELECT " + BATTLE_COLUMNS + " FROM battle " + where + " ORDER BY seq";
+        // même filtre, actions groupées par combat (ordre de la clé primaire battle_id, idx)
+        String actionSql = "SELECT battle_id,round,actor,action_type,damage,hp_a,hp_b,description,modifiable "
+                + "FROM battle_action JOIN battle ON battle.id = battle_action.battle_id " + where
+                + " ORDER BY battle_id, idx";
+        Map<String, BattleHistory> byId = new LinkedHashMap<>();
+        try (Connection c = Db.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement as = c.prepareStatement(actionSql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+                as.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    BattleHistory battle = readBattle(rs);
+                    byId.put(battle.getBattleId(), battle);
+                }
+            }
+            if (!byId.isEmpty()) {
+                try (ResultSet ars = as.executeQuery()) {
+                    readActions(ars, byId);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(operation + " failed: " + e.getMessage(), e);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private BattleHistory readBattle(ResultSet rs) throws SQLException {
+        Character f1 = readFighter(rs, "f1_");
+        Character f2 = readFighter(rs, "f2_");
+        LocalDateTime playedAt = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(rs.getLong("played_at"), 1000L),
+                (int) Math.floorMod(rs.getLong("played_at"), 1000L) * 1_000_000,
+                ZoneOffset.UTC);
+        BattleHistory battle = BattleHistory.restore(rs.getLong("seq"), f1, f2, playedAt, rs.getLong("seed"));
+        battle.setBattleName(rs.getString("name"));
+        int side = rs.getInt("winner_side");
+        if (side != 0) battle.setWinner(side == 2 ? f2 : f1);
+        return battle;
+    }
+
+    private Character readFighter(ResultSet rs, String prefix) throws SQLException {
+        Character base = new Character(
+                rs.getString(prefix + "name"),
+                rs.getInt(prefix + "strength"),
+                rs.getInt(prefix + "agility"),
+                rs.getInt(prefix + "intelligence")
+        );
+        return Decorators.compile(rs.getString(prefix + "decorators"), base);
+    }
+
+    private void readActions(ResultSet rs, Map<String, BattleHistory> byId) throws SQLException {
+        BattleHistory battle = null;
+        Character f1 = null;
+        Character f2 = null;
+        while (rs.next()) {
+            String battleId = rs.getString("battle_id");
+            if (battle == null || !battle.getBattleId().equals(battleId)) {
+                battle = byId.get(battleId);
+                if (battle == null) continue; // écrit entre les deux requêtes
+                f1 = battle.getFighter1();
+                f2 = battle.getFighter2();
+            }
+            boolean actorIsF2 = rs.getInt("actor") == 2;
+            Character actor = actorIsF2 ? f2 : f1;
+            Character target = actorIsF2 ? f1 : f2;
+            // description NULL conservée telle quelle : seule une édition manuelle est stockée
+            battle.addAction(new BattleAction(rs.getInt("round"), actor, target, rs.getString("action_type"),
+                    rs.getString("description"), rs.getInt("damage"), rs.getInt("modifiable") == 1,
+                    rs.getInt("hp_a"), rs.getInt("hp_b")));
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime t) {
+        return t.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -1,6 +1,7 @@
 package rpg.dao;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,9 +29,17 @@ public class CharacterDAO implements DAO<Character> {
     }
 
     public List<Character> findAllSortedByPower() {
-        return storage.stream()
-                .sorted(Comparator.comparingInt(Character::getPowerLevel).reversed())
-                .collect(Collectors.toList());
+        // puissance lue une fois par personnage, pas à chaque comparaison
+        int n = storage.size();
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++) {
+            int power = storage.get(i).getPowerLevel();
+            keyed[i] = ((long) -power << 32) | i; // décroissant, stable
+        }
+        Arrays.sort(keyed);
+        List<Character> out = new ArrayList<>(n);
+        for (long k : keyed) out.add(storage.get((int) k));
+        return out;
     }
 
     public List<Character> findAllSortedByName() {
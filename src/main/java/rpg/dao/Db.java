@@ -23,8 +23,50 @@ public final class Db {
               decorators  TEXT                      -- ex: "Invisibility,FireResistance"
             );
             """;
+        String battles = """
+            CREATE TABLE IF NOT EXISTS battle (
+              id           TEXT PRIMARY KEY,       -- BattleHistory.getBattleId()
+              seq          INTEGER NOT NULL,
+              name         TEXT NOT NULL,
+              played_at    INTEGER NOT NULL,       -- epoch ms (UTC)
+              seed         INTEGER NOT NULL,
+              f1_name      TEXT NOT NULL,
+              f1_strength  INTEGER NOT NULL,
+              f1_agility   INTEGER NOT NULL,
+              f1_intelligence INTEGER NOT NULL,
+              f1_decorators TEXT,
+              f2_name      TEXT NOT NULL,
+              f2_strength  INTEGER NOT NULL,
+              f2_agility   INTEGER NOT NULL,
+              f2_intelligence INTEGER NOT NULL,
+              f2_decorators TEXT,
+              winner       TEXT,                   -- nom du vainqueur
+              winner_side  INTEGER                 -- 1 = fighter1, 2 = fighter2, 0 = aucun
+            );
+            """;
+        String actions = """
+            CREATE TABLE IF NOT EXISTS battle_action (
+              battle_id    TEXT NOT NULL REFERENCES battle(id) ON DELETE CASCADE,
+              idx          INTEGER NOT NULL,
+              round        INTEGER NOT NULL,
+              actor        INTEGER NOT NULL,       -- 1 = fighter1, 2 = fighter2
+              action_type  TEXT NOT NULL,
+              damage       INTEGER NOT NULL,
+              hp_a         INTEGER NOT NULL,       -- -1 si inconnu
+              hp_b         INTEGER NOT NULL,
+              description  TEXT,                   -- seulement si éditée à la main
+              modifiable   INTEGER NOT NULL,
+              PRIMARY KEY (battle_id, idx)
+            ) WITHOUT ROWID;
+            """;
         try (Connection c = getConnection(); Statement st = c.createStatement()) {
             st.execute(sql);
+            st.execute(battles);
+            st.execute(actions);
+            // index des requêtes de BattleHistoryDAO
+            st.execute("CREATE INDEX IF NOT EXISTS idx_battle_f1 ON battle(f1_name)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_battle_f2 ON battle(f2_name)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_battle_played_at ON battle(played_at)");
         }
     }
 }
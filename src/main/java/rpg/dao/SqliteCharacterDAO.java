@@ -1,10 +1,7 @@
 package rpg.dao;
 
 import rpg.core.Character;
-import rpg.decorator.CharacterDecorator;
-import rpg.decorator.FireResistance;
-import rpg.decorator.Invisibility;
-import rpg.decorator.Telepathy;
+import rpg.decorator.Decorators;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -20,39 +17,16 @@ public class SqliteCharacterDAO implements DAO<Character> {
 
     // --------------------- Helpers décorateurs ---------------------
     private String serializeDecorators(Character c) {
-        // remonte la chaine et enregistre l'ordre d'application (du bas vers le haut)
-        List<String> list = new ArrayList<>();
-        Character cur = c;
-        while (cur instanceof CharacterDecorator) {
-            if (cur instanceof Invisibility) list.add("Invisibility");
-            else if (cur instanceof FireResistance) list.add("FireResistance");
-            else if (cur instanceof Telepathy) list.add("Telepathy");
-            cur = ((CharacterDecorator) cur).getWrappedCharacter();
-        }
-        // on stocke de haut en bas (ordre d’application), ça n’a pas d’importance tant qu’on réapplique dans le même ordre
-        java.util.Collections.reverse(list);
-        return String.join(",", list);
+        return Decorators.serialize(c);
     }
 
     private Character unwrap(Character c) {
-        Character cur = c;
-        while (cur instanceof CharacterDecorator) {
-            cur = ((CharacterDecorator) cur).getWrappedCharacter();
-        }
-        return cur;
+        return Decorators.unwrap(c);
     }
 
+    // personnages lus : chaîne compilée, puissance et description déjà calculées
     private Character reapply(String decoratorsCsv, Character base) {
-        if (decoratorsCsv == null || decoratorsCsv.isBlank()) return base;
-        for (String d : decoratorsCsv.split(",")) {
-            switch (d.trim()) {
-                case "Invisibility" -> base = new Invisibility(base);
-                case "FireResistance" -> base = new FireResistance(base);
-                case "Telepathy" -> base = new Telepathy(base);
-                default -> { /* inconnu => ignorer */ }
-            }
-        }
-        return base;
+        return Decorators.compile(decoratorsCsv, base);
     }
 
     // --------------------- CRUD ---------------------
@@ -140,6 +114,7 @@ public class SqliteCharacterDAO implements DAO<Character> {
 
     public List<Character> findAllSortedByPower() {
         // plus simple : on récupère tout puis on trie côté Java (pour tenir compte des décorateurs)
+        // findAll() renvoie des personnages compilés : getPowerLevel() est un simple champ
         return findAll().stream()
                 .sorted(Comparator.comparingInt(Character::getPowerLevel).reversed())
                 .collect(Collectors.toList());
@@ -0,0 +1,54 @@
+package rpg.decorator;
+
+import java.util.function.UnaryOperator;
+import rpg.core.Character;
+
+// Décorateurs connus : nom sérialisé, classe et constructeur. L'ordinal est le bit
+// de la capacité dans CompiledCharacter.
+public enum Capability {
+    INVISIBILITY("Invisibility", Invisibility.class, Invisibility::new),
+    FIRE_RESISTANCE("FireResistance", FireResistance.class, FireResistance::new),
+    TELEPATHY("Telepathy", Telepathy.class, Telepathy::new);
+
+    private static final Capability[] VALUES = values();
+
+    private final String serializedName;
+    private final Class<? extends CharacterDecorator> type;
+    private final UnaryOperator<Character> factory;
+
+    Capability(String serializedName, Class<? extends CharacterDecorator> type, UnaryOperator<Character> factory) {
+        this.serializedName = serializedName;
+        this.type = type;
+        this.factory = factory;
+    }
+
+    public String getSerializedName() { return serializedName; }
+    public Class<? extends CharacterDecorator> getType() { return type; }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public Character wrap(Character c) {
+        return factory.apply(c);
+    }
+
+    // null si le décorateur n'est pas un des types connus
+    public static Capability of(Character decorator) {
+        for (Capability cap : VALUES) {
+            if (cap.type.isInstance(decorator)) return cap;
+        }
+        return null;
+    }
+
+    public static Capability byName(String name) {
+        for (Capability cap : VALUES) {
+            if (cap.serializedName.equals(name)) return cap;
+        }
+        return null;
+    }
+
+    static Capability byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,87 @@
+package rpg.decorator;
+
+import java.util.ArrayList;
+import java.util.List;
+import rpg.core.Character;
+
+// Chaîne de décorateurs aplatie en un seul objet : stats de base, capacités en bitset
+// (plus l'ordre d'application, qui fixe la description et la sérialisation), bonus de
+// puissance et description calculés une fois. getPowerLevel() et getDescription() ne
+// parcourent plus la chaîne ; la chaîne d'origine n'est pas retenue.
+public final class CompiledCharacter extends Character {
+    private final Character base;
+    private final long capabilities;
+    private final byte[] order; // ordinaux de Capability, du bas vers le haut
+    private final int powerBonus;
+    private final int powerLevel;
+    private final String description;
+
+    private CompiledCharacter(Character base, long capabilities, byte[] order, int powerLevel, String description) {
+        super(base.getName(), base.getStrength(), base.getAgility(), base.getIntelligence());
+        this.base = base;
+        this.capabilities = capabilities;
+        this.order = order;
+        this.powerLevel = powerLevel;
+        this.powerBonus = powerLevel - base.getPowerLevel();
+        this.description = description;
+    }
+
+    // idempotent ; les décorateurs inconnus comptent dans la puissance et la description
+    // mais n'apparaissent pas dans les capacités
+    public static CompiledCharacter compile(Character c) {
+        if (c instanceof CompiledCharacter) return (CompiledCharacter) c;
+        List<Capability> layers = new ArrayList<>();
+        Character cur = c;
+        while (cur instanceof CharacterDecorator) {
+            Capability cap = Capability.of(cur);
+            if (cap != null) layers.add(cap);
+            cur = ((CharacterDecorator) cur).getWrappedCharacter();
+        }
+        if (cur instanceof CompiledCharacter) {
+            // décorateurs posés sur un personnage déjà compilé
+            CompiledCharacter inner = (CompiledCharacter) cur;
+            for (int i = inner.order.length - 1; i >= 0; i--) layers.add(Capability.byOrdinal(inner.order[i]));
+            cur = inner.base;
+        }
+        byte[] order = new byte[layers.size()];
+        long capabilities = 0;
+        for (int i = 0; i < order.length; i++) {
+            Capability cap = layers.get(order.length - 1 - i);
+            order[i] = (byte) cap.ordinal();
+            capabilities |= cap.bit();
+        }
+        return new CompiledCharacter(cur, capabilities, order, c.getPowerLevel(), c.getDescription());
+    }
+
+    public Character getBase() { return base; }
+    public long getCapabilities() { return capabilities; }
+    public int getPowerBonus() { return powerBonus; }
+
+    public boolean has(Capability capability) {
+        return (capabilities & capability.bit()) != 0;
+    }
+
+    // capacités dans l'ordre d'application
+    public List<Capability> getLayers() {
+        List<Capability> layers = new ArrayList<>(order.length);
+        for (byte b : order) layers.add(Capability.byOrdinal(b));
+        return layers;
+    }
+
+    // chaîne de décorateurs équivalente, pour le code qui en a besoin
+    public Character toDecoratorChain() {
+        Character c = base;
+        for (byte b : order) c = Capability.byOrdinal(b).wrap(c);
+        return c;
+    }
+
+    @Override
+    public int getPowerLevel() {
+        return powerLevel;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
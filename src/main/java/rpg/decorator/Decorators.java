@@ -0,0 +1,65 @@
+package rpg.decorator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import rpg.core.Character;
+
+// (Dé)sérialisation de la chaîne de décorateurs, partagée par la base et les archives.
+// Toutes les méthodes acceptent indifféremment une chaîne ou un CompiledCharacter.
+public final class Decorators {
+    private Decorators() {
+    }
+
+    // ordre d'application (du bas vers le haut), séparé par des virgules
+    public static String serialize(Character c) {
+        List<String> list = new ArrayList<>();
+        for (Capability cap : layers(c)) list.add(cap.getSerializedName());
+        return String.join(",", list);
+    }
+
+    // capacités connues, du bas vers le haut
+    public static List<Capability> layers(Character c) {
+        List<Capability> list = new ArrayList<>();
+        Character cur = c;
+        while (cur instanceof CharacterDecorator) {
+            Capability cap = Capability.of(cur);
+            if (cap != null) list.add(cap);
+            cur = ((CharacterDecorator) cur).getWrappedCharacter();
+        }
+        Collections.reverse(list);
+        if (cur instanceof CompiledCharacter) list.addAll(0, ((CompiledCharacter) cur).getLayers());
+        return list;
+    }
+
+    public static boolean has(Character c, Capability capability) {
+        Character cur = c;
+        while (cur instanceof CharacterDecorator) {
+            if (Capability.of(cur) == capability) return true;
+            cur = ((CharacterDecorator) cur).getWrappedCharacter();
+        }
+        return cur instanceof CompiledCharacter && ((CompiledCharacter) cur).has(capability);
+    }
+
+    public static Character unwrap(Character c) {
+        Character cur = c;
+        while (cur instanceof CharacterDecorator) {
+            cur = ((CharacterDecorator) cur).getWrappedCharacter();
+        }
+        return cur instanceof CompiledCharacter ? ((CompiledCharacter) cur).getBase() : cur;
+    }
+
+    public static Character reapply(String decoratorsCsv, Character base) {
+        if (decoratorsCsv == null || decoratorsCsv.isBlank()) return base;
+        for (String d : decoratorsCsv.split(",")) {
+            Capability cap = Capability.byName(d.trim());
+            if (cap != null) base = cap.wrap(base); // inconnu => ignorer
+        }
+        return base;
+    }
+
+    // forme aplatie, pour les personnages lus en base et les gros rosters
+    public static CompiledCharacter compile(String decoratorsCsv, Character base) {
+        return CompiledCharacter.compile(reapply(decoratorsCsv, base));
+    }
+}
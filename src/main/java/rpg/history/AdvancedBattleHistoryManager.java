@@ -1,16 +1,41 @@
 package rpg.history;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import rpg.core.Character;
 
-public class AdvancedBattleHistoryManager {
-    private final List<BattleHistory> battles;
+// Les maxBattles derniers combats dans un tampon circulaire, plus un index par id :
+// ajout et recherche en O(1). Thread-safe, plusieurs producteurs peuvent enregistrer en parallèle.
+// Avec une BattleArchive, les combats qui sortent du tampon y sont écrits au lieu d'être perdus
+// et restent accessibles par getBattle et getBattlesPage. close() y verse aussi les combats
+// encore en mémoire : sans cela les plus récents seraient perdus à chaque arrêt.
+public class AdvancedBattleHistoryManager implements AutoCloseable {
+    public static final int DEFAULT_MAX_BATTLES = 50;
+
+    private final BattleHistory[] battles;
+    private final Map<String, BattleHistory> index;
     private final int maxBattles;
+    private final BattleArchive archive; // null : les plus anciens sont oubliés
+    private int head;  // prochaine case à écrire
+    private int count;
     
     public AdvancedBattleHistoryManager() {
-        this.battles = new ArrayList<>();
-        this.maxBattles = 50; // Keep last 50 battles
+        this(DEFAULT_MAX_BATTLES); // Keep last 50 battles
+    }
+
+    public AdvancedBattleHistoryManager(int maxBattles) {
+        this(maxBattles, null);
+    }
+
+    public AdvancedBattleHistoryManager(int maxBattles, BattleArchive archive) {
+        if (maxBattles < 1) throw new IllegalArgumentException("maxBattles must be >= 1");
+        this.maxBattles = maxBattles;
+        this.archive = archive;
+        this.battles = new BattleHistory[maxBattles];
+        this.index = new HashMap<>();
     }
     
     public BattleHistory startNewBattle(Character fighter1, Character fighter2) {
@@ -19,45 +44,141 @@ public class AdvancedBattleHistoryManager {
         return battle;
     }
     
-    public void addBattle(BattleHistory battle) {
-        battles.add(0, battle); // Add at beginning for newest first
-        
-        // Keep only max battles
-        while (battles.size() > maxBattles) {
-            battles.remove(battles.size() - 1);
+    public synchronized void addBattle(BattleHistory battle) {
+        if (index.containsKey(battle.getBattleId())) return;
+        BattleHistory evicted = battles[head];
+        if (evicted != null) {
+            index.remove(evicted.getBattleId());
+            if (archive != null) archive.append(evicted);
+            // le plus ancien sort : on coupe parent -> variantes ; ses variantes gardent son id
+            // et le retrouvent par getParent (archive comprise)
+            evicted.dropVariants();
+            BattleHistory parent = evicted.getParentId() == null ? null : index.get(evicted.getParentId());
+            if (parent != null) parent.removeVariant(evicted);
         }
+        battles[head] = battle;
+        index.put(battle.getBattleId(), battle);
+        head = (head + 1) % maxBattles;
+        if (count < maxBattles) count++;
     }
     
-    public List<BattleHistory> getAllBattles() {
-        return new ArrayList<>(battles);
+    // du plus récent au plus ancien
+    public synchronized List<BattleHistory> getAllBattles() {
+        List<BattleHistory> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(battles[Math.floorMod(head - i, maxBattles)]);
+        }
+        return result;
     }
     
-    public BattleHistory getBattle(String battleId) {
-        return battles.stream()
-            .filter(battle -> battle.getBattleId().equals(battleId))
-            .findFirst()
-            .orElse(null);
+    public synchronized BattleHistory getBattle(String battleId) {
+        BattleHistory battle = index.get(battleId);
+        if (battle != null || archive == null || !battleId.startsWith("BATTLE_")) return battle;
+        try {
+            return archive.findBySequence(Long.parseLong(battleId.substring("BATTLE_".length())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // parent d'une variante, en mémoire ou relu dans l'archive ; null pour un combat d'origine
+    // ou si le parent a été oublié (pas d'archive)
+    public BattleHistory getParent(BattleHistory variant) {
+        return variant.getParentId() == null ? null : getBattle(variant.getParentId());
+    }
+
+    // page de combats, du plus récent au plus ancien, en mémoire puis dans l'archive
+    public synchronized List<BattleHistory> getBattlesPage(int page, int pageSize) {
+        int from = page * pageSize;
+        List<BattleHistory> result = new ArrayList<>(pageSize);
+        for (int i = from; i < count && result.size() < pageSize; i++) {
+            result.add(battles[Math.floorMod(head - 1 - i, maxBattles)]);
+        }
+        if (archive != null && result.size() < pageSize) {
+            result.addAll(archive.getNewest(Math.max(0, from - count), pageSize - result.size()));
+        }
+        return result;
+    }
+
+    // en mémoire + archivés
+    public synchronized int getTotalBattleCount() {
+        return count + (archive == null ? 0 : archive.size());
     }
     
+    // la variante reprend sans copie les actions communes avec l'original
     public void saveBattleVariant(BattleHistory originalBattle, List<BattleAction> modifiedActions, Character newWinner) {
-        // Create a new battle history with modified actions
-        BattleHistory variant = new BattleHistory(originalBattle.getFighter1(), originalBattle.getFighter2());
-        variant.setBattleName(originalBattle.getBattleName() + " (Variant)");
+        int common = 0;
+        int limit = Math.min(originalBattle.getActionCount(), modifiedActions.size());
+        while (common < limit && sameAction(originalBattle.getAction(common), modifiedActions.get(common))) common++;
         
-        // Add all modified actions
-        for (BattleAction action : modifiedActions) {
-            variant.addAction(action);
+        BattleHistory variant = originalBattle.branch(common);
+        variant.setBattleName(originalBattle.getBattleName() + " (Variant)");
+        for (int i = common; i < modifiedActions.size(); i++) {
+            variant.addAction(modifiedActions.get(i));
         }
         variant.setWinner(newWinner);
         
+        originalBattle.addVariant(variant);
         addBattle(variant);
     }
     
-    public void clearHistory() {
-        battles.clear();
+    // edited : en général issu de original.branch(...) puis modifié ; la variante partage ses blocs
+    public BattleHistory saveBattleVariant(BattleHistory edited, String variantName) {
+        BattleHistory variant = edited.snapshot();
+        variant.setBattleName(variantName);
+        synchronized (this) {
+            // parent encore en mémoire : il référence la variante (getVariants)
+            BattleHistory parent = variant.getParentId() == null ? null : index.get(variant.getParentId());
+            if (parent != null) parent.addVariant(variant);
+            addBattle(variant);
+        }
+        return variant;
+    }
+    
+    private static boolean sameAction(BattleAction a, BattleAction b) {
+        return a.getRound() == b.getRound()
+            && a.getActor() == b.getActor()
+            && a.getTarget() == b.getTarget()
+            && a.getActionType().equals(b.getActionType())
+            && a.getDamage() == b.getDamage()
+            && a.getHpA() == b.getHpA()
+            && a.getHpB() == b.getHpB()
+            && a.isModifiable() == b.isModifiable()
+            && a.hasCustomDescription() == b.hasCustomDescription()
+            && (!a.hasCustomDescription() || a.getDescription().equals(b.getDescription()));
     }
     
-    public int getBattleCount() {
-        return battles.size();
+    public synchronized void clearHistory() {
+        for (int i = 1; i <= count; i++) battles[Math.floorMod(head - i, maxBattles)].dropVariants();
+        Arrays.fill(battles, null);
+        index.clear();
+        head = 0;
+        count = 0;
+        if (archive != null) archive.clear();
+    }
+    
+    // écrit les combats en mémoire dans l'archive (du plus ancien au plus récent, pour garder
+    // l'index trié) puis la ferme ; le gestionnaire est vide ensuite
+    @Override
+    public synchronized void close() {
+        if (archive == null) return;
+        for (int i = count; i >= 1; i--) {
+            BattleHistory battle = battles[Math.floorMod(head - i, maxBattles)];
+            archive.append(battle);
+            battle.dropVariants();
+        }
+        Arrays.fill(battles, null);
+        index.clear();
+        head = 0;
+        count = 0;
+        archive.close();
+    }
+
+    public synchronized int getBattleCount() {
+        return count;
+    }
+
+    public int getMaxBattles() {
+        return maxBattles;
     }
-}
\ No newline at end of file
+}
@@ -7,9 +7,12 @@ public class BattleAction {
     private final Character actor;
     private final Character target;
     private final String actionType;
-    private final String description;
+    private String description; // null : rendu à la demande depuis les champs
     private final int damage;
     private final boolean modifiable;
+    private final int hpA; // PV des deux combattants après l'action, -1 si inconnus
+    private final int hpB;
+    private final boolean customDescription; // texte fourni (édité) plutôt que rendu
     
     public BattleAction(int round, Character actor, Character target, String actionType, String description, int damage) {
         this.round = round;
@@ -19,6 +22,9 @@ public class BattleAction {
         this.description = description;
         this.damage = damage;
         this.modifiable = true; // By default, actions can be modified
+        this.hpA = -1;
+        this.hpB = -1;
+        this.customDescription = description != null;
     }
     
     public BattleAction(int round, Character actor, Character target, String actionType, String description, int damage, boolean modifiable) {
@@ -29,6 +35,38 @@ public class BattleAction {
         this.description = description;
         this.damage = damage;
         this.modifiable = modifiable;
+        this.hpA = -1;
+        this.hpB = -1;
+        this.customDescription = description != null;
+    }
+    
+    // action structurée : pas de texte construit tant que personne ne le lit
+    public BattleAction(int round, Character actor, Character target, String actionType, int damage, int hpA, int hpB) {
+        this.round = round;
+        this.actor = actor;
+        this.target = target;
+        this.actionType = actionType;
+        this.damage = damage;
+        this.modifiable = true;
+        this.hpA = hpA;
+        this.hpB = hpB;
+        this.customDescription = false;
+    }
+    
+    // forme complète : vue du stockage en colonnes de BattleHistory, relecture en base.
+    // description null : rendue depuis les champs (pas une édition)
+    public BattleAction(int round, Character actor, Character target, String actionType, String description,
+                 int damage, boolean modifiable, int hpA, int hpB) {
+        this.round = round;
+        this.actor = actor;
+        this.target = target;
+        this.actionType = actionType;
+        this.description = description;
+        this.damage = damage;
+        this.modifiable = modifiable;
+        this.hpA = hpA;
+        this.hpB = hpB;
+        this.customDescription = description != null;
     }
     
     // Getters
@@ -36,9 +74,32 @@ public class BattleAction {
     public Character getActor() { return actor; }
     public Character getTarget() { return target; }
     public String getActionType() { return actionType; }
-    public String getDescription() { return description; }
     public int getDamage() { return damage; }
     public boolean isModifiable() { return modifiable; }
+    public int getHpA() { return hpA; }
+    public int getHpB() { return hpB; }
+    public boolean hasHp() { return hpA >= 0 && hpB >= 0; }
+    public boolean hasCustomDescription() { return customDescription; }
+    
+    public String getDescription() {
+        String d = description;
+        if (d == null) {
+            d = describe(actor, target, actionType, damage, hpA, hpB);
+            description = d;
+        }
+        return d;
+    }
+    
+    // format commun à CombatEngine et au replay : "A attacks B for 5 damage (hpA=55, hpB=51)"
+    public static String describe(Character actor, Character target, String actionType, int damage, int hpA, int hpB) {
+        StringBuilder sb = new StringBuilder(64)
+            .append(actor.getName()).append(' ').append(actionType).append(' ')
+            .append(target.getName()).append(" for ").append(damage).append(" damage");
+        if (hpA >= 0 && hpB >= 0) {
+            sb.append(" (hpA=").append(hpA).append(", hpB=").append(hpB).append(')');
+        }
+        return sb.toString();
+    }
     
     public String getFormattedAction() {
         return String.format("Round %d: %s %s %s (dmg: %d)", 
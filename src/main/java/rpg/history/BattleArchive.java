@@ -0,0 +1,182 @@
+package rpg.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Archive des combats sortis de la mémoire : un fichier de données en ajout seul
+// ([longueur][combat sérialisé]...) et un index à entrées fixes (séquence, offset).
+// Rien n'est gardé en mémoire par combat : la recherche par id est une recherche
+// dichotomique dans l'index (les séquences y arrivent quasi triées), le heap reste borné
+// quel que soit le nombre de combats archivés.
+public class BattleArchive implements AutoCloseable {
+    private static final int INDEX_ENTRY = 16;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private long dataEnd;
+    private int count;
+
+    // l'index est écrit à côté, dans <dataFile>.idx
+    public BattleArchive(Path dataFile) {
+        Path indexFile = dataFile.resolveSibling(dataFile.getFileName() + ".idx");
+        try {
+            this.data = FileChannel.open(dataFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.index = FileChannel.open(indexFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException e) {
+            throw new RuntimeException("archive open failed: " + e.getMessage(), e);
+        }
+    }
+
+    // un arrêt brutal entre l'écriture des données et celle de l'index laisse une fin
+    // de fichier orpheline : on la coupe
+    private void recover() throws IOException {
+        count = (int) (index.size() / INDEX_ENTRY);
+        index.truncate((long) count * INDEX_ENTRY);
+        if (count == 0) {
+            dataEnd = 0;
+        } else {
+            long lastOffset = readIndex(count - 1).getLong(8);
+            ByteBuffer len = ByteBuffer.allocate(4);
+            readFully(data, len, lastOffset);
+            dataEnd = lastOffset + 4 + len.getInt(0);
+        }
+        data.truncate(dataEnd);
+    }
+
+    public synchronized void append(BattleHistory battle) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // longueur, remplie ci-dessous
+            battle.writeTo(out);
+            out.flush();
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            record.putInt(0, record.capacity() - 4);
+            writeFully(data, record, dataEnd);
+
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY);
+            entry.putLong(0, battle.getSequence()).putLong(8, dataEnd);
+            writeFully(index, entry, (long) count * INDEX_ENTRY);
+
+            dataEnd += record.capacity();
+            count++;
+        } catch (IOException e) {
+            throw new RuntimeException("archive append failed: " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    // position dans l'ordre d'archivage, 0 = le plus ancien
+    public synchronized BattleHistory get(int position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + count);
+        }
+        try {
+            return readBattle(readIndex(position).getLong(8));
+        } catch (IOException e) {
+            throw new RuntimeException("archive read failed: " + e.getMessage(), e);
+        }
+    }
+
+    public synchronized BattleHistory findBySequence(long sequence) {
+        try {
+            int position = search(sequence);
+            return position < 0 ? null : readBattle(readIndex(position).getLong(8));
+        } catch (IOException e) {
+            throw new RuntimeException("archive read failed: " + e.getMessage(), e);
+        }
+    }
+
+    // combats du plus récent au plus ancien : [skip, skip + limit)
+    public synchronized List<BattleHistory> getNewest(int skip, int limit) {
+        List<BattleHistory> page = new ArrayList<>(Math.max(0, Math.min(limit, count - skip)));
+        for (int i = 0; i < limit && skip + i < count; i++) {
+            page.add(get(count - 1 - skip - i));
+        }
+        return page;
+    }
+
+    public synchronized void clear() {
+        try {
+            data.truncate(0);
+            index.truncate(0);
+            dataEnd = 0;
+            count = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("archive clear failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            data.close();
+            index.close();
+        } catch (IOException e) {
+            throw new RuntimeException("archive close failed: " + e.getMessage(), e);
+        }
+    }
+
+    // dichotomie ; si un producteur a archivé hors ordre, on retombe sur un parcours complet
+    private int search(long sequence) throws IOException {
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long s = readIndex(mid).getLong(0);
+            if (s == sequence) return mid;
+            if (s < sequence) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        ByteBuffer block = ByteBuffer.allocate(INDEX_ENTRY * 4096);
+        for (long pos = 0; pos < (long) count * INDEX_ENTRY; pos += block.capacity()) {
+            block.clear();
+            int read = index.read(block, pos);
+            for (int off = 0; off + INDEX_ENTRY <= read; off += INDEX_ENTRY) {
+                if (block.getLong(off) == sequence) return (int) ((pos + off) / INDEX_ENTRY);
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer readIndex(int position) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY);
+        readFully(index, entry, (long) position * INDEX_ENTRY);
+        return entry;
+    }
+
+    private BattleHistory readBattle(long offset) throws IOException {
+        ByteBuffer len = ByteBuffer.allocate(4);
+        readFully(data, len, offset);
+        ByteBuffer record = ByteBuffer.allocate(len.getInt(0));
+        readFully(data, record, offset + 4);
+        return BattleHistory.readFrom(new DataInputStream(new ByteArrayInputStream(record.array())));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) throw new IOException("unexpected end of archive");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
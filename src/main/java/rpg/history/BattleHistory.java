@@ -1,56 +1,341 @@
 package rpg.history;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import rpg.core.Character;
+import rpg.core.RandomSource;
+import rpg.decorator.Decorators;
 
+// Les actions sont stockées en colonnes, par blocs de CHUNK_SIZE : acteur et cible sont des
+// indices dans la table des participants (0 = fighter1, 1 = fighter2), le type d'action un indice
+// dans une table de chaînes internées. Les BattleAction ne sont construites qu'à la lecture.
+// Une variante (branch) partage les blocs de son parent et ne copie un bloc qu'au moment de
+// l'écrire : elle ne coûte que ses actions divergentes.
 public class BattleHistory {
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // colonnes d'un bloc
+    private static final int ROUND = 0;
+    private static final int ACTOR = 1;
+    private static final int TARGET = 2;
+    private static final int TYPE = 3;
+    private static final int DAMAGE = 4;
+    private static final int HP_A = 5;
+    private static final int HP_B = 6;
+    private static final int COLUMNS = 7;
+    // un instantané des PV toutes les KEYFRAME_INTERVAL actions
+    public static final int KEYFRAME_INTERVAL = 32;
+    // identifiants monotones : partent de l'heure de démarrage (en µs) pour rester croissants
+    // d'une exécution à l'autre, puis +1 par combat, donc jamais deux fois le même
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final long sequence;
     private final String battleId;
     private final Character fighter1;
     private final Character fighter2;
     private final LocalDateTime timestamp;
-    private final List<BattleAction> actions;
+    private final long seed; // suffit, avec les deux combattants, à régénérer le combat
+    private int actionCount;
+    private Chunk[] chunks = new Chunk[1];
+    private final List<Character> participants = new ArrayList<>(2);
+    private final List<String> actionTypes = new ArrayList<>(2);
+    private final Map<String, Integer> actionTypeIds = new HashMap<>();
+    private Map<Integer, String> customDescriptions; // actions éditées à la main, rares
+    // arbre des variantes : id du parent (résolu par AdvancedBattleHistoryManager.getParent, pour
+    // qu'une variante ne retienne pas son parent en mémoire), nombre d'actions encore identiques
+    private String parentId;
+    private int branchPoint;
+    private List<BattleHistory> variants;
+    private final List<BattleAction> actionsView = new ActionsView();
+    // PV des deux combattants avant l'action k * KEYFRAME_INTERVAL, calculés à la demande ;
+    // seuls les validKeyframes premiers sont à jour
+    private int[] keyframeHpA = new int[1];
+    private int[] keyframeHpB = new int[1];
+    private int validKeyframes;
     private Character winner;
     private String battleName;
     
     public BattleHistory(Character fighter1, Character fighter2) {
-        this.battleId = "BATTLE_" + System.currentTimeMillis();
+        this(fighter1, fighter2, RandomSource.newSeed());
+    }
+
+    public BattleHistory(Character fighter1, Character fighter2, long seed) {
+        this(ID_SEQUENCE.incrementAndGet(), fighter1, fighter2, LocalDateTime.now(), seed);
+    }
+
+    // recharge un combat persisté avec son identifiant et sa date d'origine
+    public static BattleHistory restore(long sequence, Character fighter1, Character fighter2,
+                                        LocalDateTime timestamp, long seed) {
+        return new BattleHistory(sequence, fighter1, fighter2, timestamp, seed);
+    }
+
+    private BattleHistory(long sequence, Character fighter1, Character fighter2, LocalDateTime timestamp, long seed) {
+        this.sequence = sequence;
+        this.battleId = "BATTLE_" + sequence;
         this.fighter1 = fighter1;
         this.fighter2 = fighter2;
-        this.timestamp = LocalDateTime.now();
-        this.actions = new ArrayList<>();
+        this.timestamp = timestamp;
+        this.seed = seed;
+        this.participants.add(fighter1);
+        this.participants.add(fighter2);
         this.battleName = fighter1.getName() + " vs " + fighter2.getName();
     }
     
     public void addAction(BattleAction action) {
-        actions.add(action);
+        store(actionCount++, action);
     }
     
     public void removeActionsFrom(int startIndex) {
         // Remove all actions from startIndex onward
-        if (startIndex >= 0 && startIndex < actions.size()) {
-            actions.subList(startIndex, actions.size()).clear();
+        if (startIndex >= 0 && startIndex < actionCount) {
+            if (customDescriptions != null) customDescriptions.keySet().removeIf(i -> i >= startIndex);
+            actionCount = startIndex;
+            branchPoint = Math.min(branchPoint, startIndex);
+            invalidateKeyframesFrom(startIndex);
         }
     }
     
     public void replaceAction(int index, BattleAction newAction) {
         // Replace the action at the given index
-        if (index >= 0 && index < actions.size()) {
-            actions.set(index, newAction);
+        if (index >= 0 && index < actionCount) {
+            store(index, newAction);
+            invalidateKeyframesFrom(index);
+            branchPoint = Math.min(branchPoint, index);
         }
     }
     
     public BattleAction getAction(int index) {
         // Get action at specific index
-        if (index >= 0 && index < actions.size()) {
-            return actions.get(index);
+        if (index >= 0 && index < actionCount) {
+            return materialize(index);
         }
         return null;
     }
     
+    public int getActionCount() {
+        return actionCount;
+    }
+    
+    // accès direct aux colonnes, sans construire de BattleAction
+    public int getDamage(int index) { return column(index, DAMAGE); }
+    public int getHpA(int index) { return column(index, HP_A); }
+    public int getHpB(int index) { return column(index, HP_B); }
+    public boolean isTargetFighter2(int index) { return column(index, TARGET) == 1; }
+    
+    // --------------------- Variantes ---------------------
+    // nouvelle variante qui reprend les fromIndex premières actions sans les copier ;
+    // les blocs communs ne sont dupliqués que lorsque l'un des deux combats les modifie
+    public BattleHistory branch(int fromIndex) {
+        if (fromIndex < 0 || fromIndex > actionCount) {
+            throw new IndexOutOfBoundsException("Index: " + fromIndex + ", Size: " + actionCount);
+        }
+        BattleHistory child = new BattleHistory(ID_SEQUENCE.incrementAndGet(), fighter1, fighter2, LocalDateTime.now(), seed);
+        for (int i = 2; i < participants.size(); i++) child.participants.add(participants.get(i));
+        for (String type : actionTypes) child.actionTypeIndex(type);
+        int used = (fromIndex + CHUNK_MASK) >>> CHUNK_SHIFT;
+        child.chunks = used == 0 ? new Chunk[1] : Arrays.copyOf(chunks, used);
+        for (int c = 0; c < used; c++) chunks[c].shared = true;
+        child.actionCount = fromIndex;
+        if (customDescriptions != null) {
+            for (Map.Entry<Integer, String> e : customDescriptions.entrySet()) {
+                if (e.getKey() >= fromIndex) continue;
+                if (child.customDescriptions == null) child.customDescriptions = new HashMap<>();
+                child.customDescriptions.put(e.getKey(), e.getValue());
+            }
+        }
+        int keyframes = Math.min(validKeyframes, fromIndex / KEYFRAME_INTERVAL + 1);
+        child.keyframeHpA = Arrays.copyOf(keyframeHpA, Math.max(1, keyframes));
+        child.keyframeHpB = Arrays.copyOf(keyframeHpB, Math.max(1, keyframes));
+        child.validKeyframes = keyframes;
+        child.battleName = battleName;
+        child.winner = winner;
+        child.parentId = battleId;
+        child.branchPoint = fromIndex;
+        return child;
+    }
+    
+    // copie de ce combat rattachée au même parent : tous les blocs sont partagés
+    public BattleHistory snapshot() {
+        BattleHistory copy = branch(actionCount);
+        copy.parentId = parentId;
+        copy.branchPoint = parentId == null ? 0 : branchPoint;
+        return copy;
+    }
+    
+    // null pour un combat d'origine
+    public String getParentId() { return parentId; }
+    // les getBranchPoint() premières actions sont celles du parent
+    public int getBranchPoint() { return branchPoint; }
+    
+    // variantes enregistrées (AdvancedBattleHistoryManager.saveBattleVariant)
+    public synchronized List<BattleHistory> getVariants() {
+        return variants == null ? List.of() : List.copyOf(variants);
+    }
+    
+    synchronized void addVariant(BattleHistory variant) {
+        if (variants == null) variants = new ArrayList<>(2);
+        variants.add(variant);
+    }
+
+    synchronized void removeVariant(BattleHistory variant) {
+        if (variants != null) variants.remove(variant);
+    }
+
+    // combat sorti du gestionnaire : il ne retient plus ses variantes, qui gardent son id
+    synchronized void dropVariants() {
+        variants = null;
+    }
+    
+    // PV avant l'action index (index == getActionCount() : état final). Part de l'instantané
+    // le plus proche et rejoue au plus KEYFRAME_INTERVAL - 1 actions.
+    public int getHpABefore(int index) { return (int) (stateBefore(index) >> 32); }
+    public int getHpBBefore(int index) { return (int) stateBefore(index); }
+    
+    private long stateBefore(int index) {
+        if (index < 0 || index > actionCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + actionCount);
+        }
+        int k = index / KEYFRAME_INTERVAL;
+        buildKeyframes(k);
+        int hpA = keyframeHpA[k];
+        int hpB = keyframeHpB[k];
+        for (int i = k * KEYFRAME_INTERVAL; i < index; i++) {
+            if (isTargetFighter2(i)) hpB = Math.max(0, hpB - getDamage(i));
+            else hpA = Math.max(0, hpA - getDamage(i));
+        }
+        return ((long) hpA << 32) | (hpB & 0xFFFFFFFFL);
+    }
+    
+    // complète les instantanés jusqu'au k-ième, à partir du dernier encore valide
+    private void buildKeyframes(int k) {
+        if (k >= keyframeHpA.length) {
+            int capacity = Math.max(k + 1, keyframeHpA.length * 2);
+            keyframeHpA = Arrays.copyOf(keyframeHpA, capacity);
+            keyframeHpB = Arrays.copyOf(keyframeHpB, capacity);
+        }
+        if (validKeyframes == 0) {
+            keyframeHpA[0] = fighter1.getMaxHp();
+            keyframeHpB[0] = fighter2.getMaxHp();
+            validKeyframes = 1;
+        }
+        while (validKeyframes <= k) {
+            int hpA = keyframeHpA[validKeyframes - 1];
+            int hpB = keyframeHpB[validKeyframes - 1];
+            int end = validKeyframes * KEYFRAME_INTERVAL;
+            for (int i = end - KEYFRAME_INTERVAL; i < end; i++) {
+                if (isTargetFighter2(i)) hpB = Math.max(0, hpB - getDamage(i));
+                else hpA = Math.max(0, hpA - getDamage(i));
+            }
+            keyframeHpA[validKeyframes] = hpA;
+            keyframeHpB[validKeyframes] = hpB;
+            validKeyframes++;
+        }
+    }
+    
+    // l'instantané k ne dépend que des actions < k * KEYFRAME_INTERVAL
+    private void invalidateKeyframesFrom(int index) {
+        validKeyframes = Math.min(validKeyframes, index / KEYFRAME_INTERVAL + 1);
+    }
+    
+    private void store(int i, BattleAction action) {
+        storeColumns(i, action.getRound(), participantIndex(action.getActor()), participantIndex(action.getTarget()),
+            actionTypeIndex(action.getActionType()), action.getDamage(), action.getHpA(), action.getHpB(),
+            !action.isModifiable());
+        if (action.hasCustomDescription()) {
+            if (customDescriptions == null) customDescriptions = new HashMap<>();
+            customDescriptions.put(i, action.getDescription());
+        } else if (customDescriptions != null) {
+            customDescriptions.remove(i);
+        }
+    }
+    
+    private void storeColumns(int i, int round, int actor, int target, int type, int damage, int hpA, int hpB,
+                              boolean isLocked) {
+        Chunk chunk = writableChunk(i >>> CHUNK_SHIFT);
+        int o = i & CHUNK_MASK;
+        int[] d = chunk.data;
+        d[ROUND * CHUNK_SIZE + o] = round;
+        d[ACTOR * CHUNK_SIZE + o] = actor;
+        d[TARGET * CHUNK_SIZE + o] = target;
+        d[TYPE * CHUNK_SIZE + o] = type;
+        d[DAMAGE * CHUNK_SIZE + o] = damage;
+        d[HP_A * CHUNK_SIZE + o] = hpA;
+        d[HP_B * CHUNK_SIZE + o] = hpB;
+        if (isLocked) chunk.locked |= 1L << o;
+        else chunk.locked &= ~(1L << o);
+    }
+    
+    private int column(int i, int column) {
+        if (i < 0 || i >= actionCount) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + actionCount);
+        }
+        return chunks[i >>> CHUNK_SHIFT].data[column * CHUNK_SIZE + (i & CHUNK_MASK)];
+    }
+    
+    private boolean isLocked(int i) {
+        return (chunks[i >>> CHUNK_SHIFT].locked & (1L << (i & CHUNK_MASK))) != 0;
+    }
+    
+    // copie à l'écriture : un bloc partagé avec une autre variante est dupliqué avant d'être modifié
+    private Chunk writableChunk(int c) {
+        if (c >= chunks.length) chunks = Arrays.copyOf(chunks, Math.max(c + 1, chunks.length * 2));
+        Chunk chunk = chunks[c];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[c] = chunk;
+        } else if (chunk.shared) {
+            chunk = new Chunk(chunk);
+            chunks[c] = chunk;
+        }
+        return chunk;
+    }
+    
+    private BattleAction materialize(int i) {
+        String description = customDescriptions != null ? customDescriptions.get(i) : null;
+        return new BattleAction(column(i, ROUND), participants.get(column(i, ACTOR)), participants.get(column(i, TARGET)),
+            actionTypes.get(column(i, TYPE)), description, column(i, DAMAGE), !isLocked(i),
+            column(i, HP_A), column(i, HP_B));
+    }
+    
+    private int participantIndex(Character c) {
+        int index = findParticipant(c);
+        if (index >= 0) return index;
+        participants.add(c);
+        return participants.size() - 1;
+    }
+
+    // -1 si absent ; ne modifie pas la table
+    private int findParticipant(Character c) {
+        // presque toujours fighter1 ou fighter2 : recherche linéaire
+        for (int i = 0; i < participants.size(); i++) {
+            if (participants.get(i) == c) return i;
+        }
+        return -1;
+    }
+    
+    private int actionTypeIndex(String type) {
+        Integer id = actionTypeIds.get(type);
+        if (id == null) {
+            id = actionTypes.size();
+            actionTypes.add(type);
+            actionTypeIds.put(type, id);
+        }
+        return id;
+    }
+    
     public void setWinner(Character winner) {
         this.winner = winner;
     }
@@ -61,10 +346,13 @@ public class BattleHistory {
     
     // Getters
     public String getBattleId() { return battleId; }
+    public long getSequence() { return sequence; }
     public Character getFighter1() { return fighter1; }
     public Character getFighter2() { return fighter2; }
     public LocalDateTime getTimestamp() { return timestamp; }
-    public List<BattleAction> getActions() { return new ArrayList<>(actions); }
+    public long getSeed() { return seed; }
+    // vue en lecture seule, sans copie : reflète les modifications ultérieures
+    public List<BattleAction> getActions() { return actionsView; }
     public Character getWinner() { return winner; }
     public String getBattleName() { return battleName; }
     
@@ -77,11 +365,128 @@ public class BattleHistory {
             getFormattedTimestamp(), 
             battleName, 
             winner != null ? winner.getName() : "Unknown",
-            actions.size());
+            actionCount);
     }
     
     @Override
     public String toString() {
         return getSummary();
     }
-}
\ No newline at end of file
+    
+    // format binaire (archives) : en-tête, participants, types d'action, puis les colonnes
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(sequence);
+        out.writeLong(seed);
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+        out.writeUTF(getBattleName());
+        out.writeShort(participants.size());
+        for (Character c : participants) writeCharacter(out, c);
+        // la table est déjà écrite : un vainqueur qui n'y figure pas est enregistré comme inconnu
+        out.writeShort(winner == null ? -1 : findParticipant(winner));
+        out.writeShort(actionTypes.size());
+        for (String type : actionTypes) out.writeUTF(type);
+        out.writeInt(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            out.writeInt(column(i, ROUND));
+            out.writeShort(column(i, ACTOR));
+            out.writeShort(column(i, TARGET));
+            out.writeShort(column(i, TYPE));
+            out.writeInt(column(i, DAMAGE));
+            out.writeInt(column(i, HP_A));
+            out.writeInt(column(i, HP_B));
+        }
+        int customs = customDescriptions == null ? 0 : customDescriptions.size();
+        out.writeInt(customs);
+        if (customs > 0) {
+            for (Map.Entry<Integer, String> e : customDescriptions.entrySet()) {
+                out.writeInt(e.getKey());
+                out.writeUTF(e.getValue());
+            }
+        }
+        int lockedCount = 0;
+        for (int i = 0; i < actionCount; i++) if (isLocked(i)) lockedCount++;
+        out.writeInt(lockedCount);
+        for (int i = 0; i < actionCount; i++) if (isLocked(i)) out.writeInt(i);
+    }
+
+    static BattleHistory readFrom(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        long seed = in.readLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        String name = in.readUTF();
+        int participantCount = in.readShort();
+        List<Character> people = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) people.add(readCharacter(in));
+        BattleHistory battle = restore(sequence, people.get(0), people.get(1), timestamp, seed);
+        for (int i = 2; i < participantCount; i++) battle.participants.add(people.get(i));
+        battle.battleName = name;
+        int winner = in.readShort();
+        if (winner >= 0) battle.winner = people.get(winner);
+        int typeCount = in.readShort();
+        for (int i = 0; i < typeCount; i++) battle.actionTypeIndex(in.readUTF());
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            battle.storeColumns(i, in.readInt(), in.readShort(), in.readShort(), in.readShort(),
+                in.readInt(), in.readInt(), in.readInt(), false);
+        }
+        battle.actionCount = count;
+        int customs = in.readInt();
+        if (customs > 0) {
+            battle.customDescriptions = new HashMap<>();
+            for (int i = 0; i < customs; i++) battle.customDescriptions.put(in.readInt(), in.readUTF());
+        }
+        int lockedCount = in.readInt();
+        for (int i = 0; i < lockedCount; i++) {
+            int index = in.readInt();
+            battle.writableChunk(index >>> CHUNK_SHIFT).locked |= 1L << (index & CHUNK_MASK);
+        }
+        return battle;
+    }
+
+    private static void writeCharacter(DataOutput out, Character c) throws IOException {
+        Character base = Decorators.unwrap(c);
+        out.writeUTF(base.getName());
+        out.writeInt(base.getStrength());
+        out.writeInt(base.getAgility());
+        out.writeInt(base.getIntelligence());
+        out.writeUTF(Decorators.serialize(c));
+    }
+
+    private static Character readCharacter(DataInput in) throws IOException {
+        Character base = new Character(in.readUTF(), in.readInt(), in.readInt(), in.readInt());
+        return Decorators.reapply(in.readUTF(), base);
+    }
+
+    // CHUNK_SIZE actions en colonnes (data[colonne * CHUNK_SIZE + position]) ; shared : référencé
+    // par plusieurs combats, donc en lecture seule
+    private static final class Chunk {
+        final int[] data;
+        long locked; // un bit par action non modifiable
+        boolean shared;
+
+        Chunk() {
+            this.data = new int[COLUMNS * CHUNK_SIZE];
+        }
+
+        Chunk(Chunk source) {
+            this.data = source.data.clone();
+            this.locked = source.locked;
+        }
+    }
+
+    private final class ActionsView extends AbstractList<BattleAction> {
+        @Override
+        public BattleAction get(int index) {
+            if (index < 0 || index >= actionCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + actionCount);
+            }
+            return materialize(index);
+        }
+
+        @Override
+        public int size() {
+            return actionCount;
+        }
+    }
+}
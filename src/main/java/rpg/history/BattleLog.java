@@ -0,0 +1,313 @@
+package rpg.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import rpg.core.Character;
+import rpg.decorator.Decorators;
+
+// Journal binaire de combats pour l'analyse hors ligne.
+//
+// En-tête du fichier (16 octets) : magic "RPLG", version, réservé.
+// Puis un bloc par combat :
+//   int longueur (octets qui suivent)
+//   long séquence | long seed | long date (ms epoch UTC) | byte vainqueur (0, 1, 2)
+//   byte nb types | short réservé | int nb actions                        -> 32 octets fixes
+//   fighter1, fighter2 : nom, str, agi, int, décorateurs
+//   nom du combat, table des types d'action
+//   actions : 16 octets chacune (int round | byte acteur | byte type | short dégâts | int hpA | int hpB)
+//
+// La lecture passe par un MappedByteBuffer et un curseur réutilisé d'un bloc à l'autre :
+// aucun objet n'est créé par combat tant qu'on ne demande pas de chaîne ou de BattleHistory.
+// Les descriptions éditées à la main ne sont pas conservées. Ce qui ne tient pas dans le format
+// (chaîne de plus de 65535 octets, type de plus de 255, dégâts hors d'un short) est refusé
+// (IllegalArgumentException) avant que le bloc ne soit écrit.
+public final class BattleLog {
+    private static final int MAGIC = 0x52504C47; // "RPLG"
+    private static final short VERSION = 1;
+    private static final int FILE_HEADER = 16;
+    private static final int BLOCK_HEADER = 32;
+    private static final int ACTION_RECORD = 16;
+    private static final long WINDOW = 256L << 20; // taille maximale d'une projection
+    private static final int MAX_STRING = 0xFFFF; // longueurs préfixées par un short non signé
+    private static final int MAX_TYPE = 0xFF;     // ... ou un octet non signé
+
+    private BattleLog() {
+    }
+
+    // --------------------- Écriture ---------------------
+    public static void append(Path file, BattleHistory battle) {
+        append(file, List.of(battle));
+    }
+
+    public static void append(Path file, Collection<BattleHistory> battles) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            if (ch.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+                header.putInt(MAGIC).putShort(VERSION).rewind();
+                writeFully(ch, header);
+            }
+            for (BattleHistory battle : battles) {
+                writeFully(ch, encode(battle));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("battle log write failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static ByteBuffer encode(BattleHistory battle) {
+        List<BattleAction> actions = battle.getActions();
+        List<String> types = new ArrayList<>();
+        int[] typeOf = new int[actions.size()];
+        for (int i = 0; i < actions.size(); i++) {
+            String type = actions.get(i).getActionType();
+            int t = types.indexOf(type);
+            if (t < 0) {
+                if (types.size() == 255) throw new IllegalArgumentException("too many action types");
+                t = types.size();
+                types.add(type);
+            }
+            typeOf[i] = t;
+        }
+        byte[] f1 = fighterBytes(battle.getFighter1());
+        byte[] f2 = fighterBytes(battle.getFighter2());
+        byte[] name = utf8(battle.getBattleName(), MAX_STRING, "battle name");
+        byte[][] typeBytes = new byte[types.size()][];
+        int typesLength = 0;
+        for (int t = 0; t < types.size(); t++) {
+            typeBytes[t] = utf8(types.get(t), MAX_TYPE, "action type");
+            typesLength += 1 + typeBytes[t].length;
+        }
+        int length = BLOCK_HEADER + f1.length + f2.length + 2 + name.length + typesLength
+            + actions.size() * ACTION_RECORD;
+
+        ByteBuffer buf = ByteBuffer.allocate(4 + length);
+        buf.putInt(length);
+        buf.putLong(battle.getSequence());
+        buf.putLong(battle.getSeed());
+        buf.putLong(battle.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        Character winner = battle.getWinner();
+        buf.put((byte) (winner == null ? 0 : winner == battle.getFighter2() ? 2 : 1));
+        buf.put((byte) types.size());
+        buf.putShort((short) 0);
+        buf.putInt(actions.size());
+        buf.put(f1).put(f2);
+        buf.putShort((short) name.length).put(name);
+        for (int t = 0; t < types.size(); t++) {
+            buf.put((byte) typeBytes[t].length).put(typeBytes[t]);
+        }
+        for (int i = 0; i < actions.size(); i++) {
+            BattleAction action = actions.get(i);
+            buf.putInt(action.getRound());
+            buf.put((byte) (action.getActor() == battle.getFighter2() ? 2 : 1));
+            buf.put((byte) typeOf[i]);
+            int damage = action.getDamage();
+            if (damage < Short.MIN_VALUE || damage > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("damage out of range for the battle log: " + damage);
+            }
+            buf.putShort((short) damage);
+            buf.putInt(action.getHpA());
+            buf.putInt(action.getHpB());
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private static byte[] fighterBytes(Character c) {
+        Character base = Decorators.unwrap(c);
+        byte[] name = utf8(base.getName(), MAX_STRING, "fighter name");
+        byte[] decorators = utf8(Decorators.serialize(c), MAX_STRING, "decorator list");
+        ByteBuffer buf = ByteBuffer.allocate(2 + name.length + 12 + 2 + decorators.length);
+        buf.putShort((short) name.length).put(name);
+        buf.putInt(base.getStrength()).putInt(base.getAgility()).putInt(base.getIntelligence());
+        buf.putShort((short) decorators.length).put(decorators);
+        return buf.array();
+    }
+
+    private static byte[] utf8(String s, int max, String what) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > max) {
+            throw new IllegalArgumentException(what + " too long for the battle log: " + bytes.length + " bytes (max " + max + ")");
+        }
+        return bytes;
+    }
+
+    // --------------------- Lecture ---------------------
+    // visite chaque combat ; le curseur n'est valable que pendant l'appel
+    public static long scan(Path file, Consumer<Cursor> visitor) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < FILE_HEADER) return 0;
+            MappedByteBuffer window = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(WINDOW, size));
+            if (window.getInt(0) != MAGIC) throw new IOException("not a battle log");
+            long windowStart = 0;
+            long pos = FILE_HEADER;
+            long count = 0;
+            Cursor cursor = new Cursor();
+            while (pos + 4 <= size) {
+                if (pos + 4 > windowStart + window.limit()) {
+                    windowStart = pos;
+                    window = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos));
+                }
+                int length = window.getInt((int) (pos - windowStart));
+                if (pos + 4 + length > size) break; // bloc tronqué (écriture interrompue)
+                if (pos + 4 + length > windowStart + window.limit()) {
+                    windowStart = pos;
+                    window = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.max(Math.min(WINDOW, size - pos), 4L + length));
+                }
+                cursor.position(window, (int) (pos - windowStart) + 4);
+                visitor.accept(cursor);
+                pos += 4 + length;
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new RuntimeException("battle log read failed: " + e.getMessage(), e);
+        }
+    }
+
+    public static List<BattleHistory> readAll(Path file) {
+        List<BattleHistory> battles = new ArrayList<>();
+        scan(file, cursor -> battles.add(cursor.toBattleHistory()));
+        return battles;
+    }
+
+    // {victoires, combats} du personnage nommé, sans décoder un seul nom
+    public static long[] winRecord(Path file, String fighterName) {
+        byte[] name = fighterName.getBytes(StandardCharsets.UTF_8);
+        long[] record = new long[2];
+        scan(file, cursor -> {
+            int side = cursor.isFighter(1, name) ? 1 : cursor.isFighter(2, name) ? 2 : 0;
+            if (side == 0) return;
+            record[1]++;
+            if (cursor.getWinnerSide() == side) record[0]++;
+        });
+        return record;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    // vue sur un bloc projeté en mémoire
+    public static final class Cursor {
+        private ByteBuffer buf;
+        private int base;
+        private int fighter1;
+        private int fighter2;
+        private int types;
+        private int actions;
+
+        private Cursor() {
+        }
+
+        void position(ByteBuffer buf, int base) {
+            this.buf = buf;
+            this.base = base;
+            this.fighter1 = base + BLOCK_HEADER;
+            this.fighter2 = skipFighter(fighter1);
+            int name = skipFighter(fighter2);
+            this.types = name + 2 + u16(name);
+            int p = types;
+            for (int t = 0; t < getTypeCount(); t++) p += 1 + (buf.get(p) & 0xFF);
+            this.actions = p;
+        }
+
+        private int skipFighter(int p) {
+            p += 2 + u16(p) + 12;
+            return p + 2 + u16(p);
+        }
+
+        public long getSequence() { return buf.getLong(base); }
+        public long getSeed() { return buf.getLong(base + 8); }
+        public long getPlayedAtMillis() { return buf.getLong(base + 16); }
+        // 0 = inconnu, 1 = fighter1, 2 = fighter2
+        public int getWinnerSide() { return buf.get(base + 24); }
+        private int getTypeCount() { return buf.get(base + 25) & 0xFF; }
+        public int getActionCount() { return buf.getInt(base + 28); }
+
+        public int getRound(int i) { return buf.getInt(actions + i * ACTION_RECORD); }
+        public int getActorSide(int i) { return buf.get(actions + i * ACTION_RECORD + 4); }
+        public int getDamage(int i) { return buf.getShort(actions + i * ACTION_RECORD + 6); }
+        public int getHpA(int i) { return buf.getInt(actions + i * ACTION_RECORD + 8); }
+        public int getHpB(int i) { return buf.getInt(actions + i * ACTION_RECORD + 12); }
+
+        public boolean isFighter(int side, byte[] utf8Name) {
+            int p = side == 1 ? fighter1 : fighter2;
+            int len = u16(p);
+            if (len != utf8Name.length) return false;
+            for (int i = 0; i < len; i++) {
+                if (buf.get(p + 2 + i) != utf8Name[i]) return false;
+            }
+            return true;
+        }
+
+        public String getFighterName(int side) {
+            return string(side == 1 ? fighter1 : fighter2, u16(side == 1 ? fighter1 : fighter2), 2);
+        }
+
+        public String getActionType(int i) {
+            int type = buf.get(actions + i * ACTION_RECORD + 5) & 0xFF;
+            int p = types;
+            for (int t = 0; t < type; t++) p += 1 + (buf.get(p) & 0xFF);
+            return string(p, buf.get(p) & 0xFF, 1);
+        }
+
+        private int u16(int p) {
+            return buf.getShort(p) & 0xFFFF;
+        }
+
+        private String string(int p, int len, int prefix) {
+            byte[] bytes = new byte[len];
+            for (int i = 0; i < len; i++) bytes[i] = buf.get(p + prefix + i);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private Character fighter(int p) {
+            int nameLen = u16(p);
+            String name = string(p, nameLen, 2);
+            int stats = p + 2 + nameLen;
+            Character base = new Character(name, buf.getInt(stats), buf.getInt(stats + 4), buf.getInt(stats + 8));
+            int dec = stats + 12;
+            return Decorators.reapply(string(dec, u16(dec), 2), base);
+        }
+
+        public BattleHistory toBattleHistory() {
+            Character f1 = fighter(fighter1);
+            Character f2 = fighter(fighter2);
+            long millis = getPlayedAtMillis();
+            LocalDateTime playedAt = LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                (int) Math.floorMod(millis, 1000L) * 1_000_000, ZoneOffset.UTC);
+            BattleHistory battle = BattleHistory.restore(getSequence(), f1, f2, playedAt, getSeed());
+            int name = skipFighter(fighter2);
+            battle.setBattleName(string(name, u16(name), 2));
+            int winner = getWinnerSide();
+            if (winner != 0) battle.setWinner(winner == 2 ? f2 : f1);
+            int typeCount = getTypeCount();
+            String[] typeNames = new String[typeCount];
+            int p = types;
+            for (int t = 0; t < typeCount; t++) {
+                typeNames[t] = string(p, buf.get(p) & 0xFF, 1);
+                p += 1 + (buf.get(p) & 0xFF);
+            }
+            for (int i = 0; i < getActionCount(); i++) {
+                boolean actorIsF2 = getActorSide(i) == 2;
+                battle.addAction(new BattleAction(getRound(i), actorIsF2 ? f2 : f1, actorIsF2 ? f1 : f2,
+                    typeNames[buf.get(actions + i * ACTION_RECORD + 5) & 0xFF],
+                    getDamage(i), getHpA(i), getHpB(i)));
+            }
+            return battle;
+        }
+    }
+}
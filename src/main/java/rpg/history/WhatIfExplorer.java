@@ -0,0 +1,103 @@
+package rpg.history;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import rpg.core.Character;
+import rpg.core.DuelOdds;
+import rpg.core.DuelSolver;
+
+// "Et si ?" : pour une action d'un combat, chaque valeur de dégâts possible (le tirage de
+// CombatKernel.DAMAGE_ROLL valeurs) est rejouée jusqu'à la fin du combat. L'état avant l'action
+// est lu une seule fois (instantanés de BattleHistory) puis partagé ; chaque alternative est
+// résolue exactement par DuelSolver, en parallèle sur le pool.
+public class WhatIfExplorer {
+    private final ForkJoinPool pool;
+    private final DuelSolver solver = new DuelSolver(); // profils mémorisés, communs aux alternatives
+
+    public WhatIfExplorer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public WhatIfExplorer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // alternatives par dégâts croissants ; celle de l'action enregistrée est marquée isActual()
+    public List<Alternative> explore(BattleHistory battle, int actionIndex) {
+        if (actionIndex < 0 || actionIndex >= battle.getActionCount()) {
+            throw new IndexOutOfBoundsException("Index: " + actionIndex + ", Size: " + battle.getActionCount());
+        }
+        Character f1 = battle.getFighter1();
+        Character f2 = battle.getFighter2();
+        int hpA = battle.getHpABefore(actionIndex);
+        int hpB = battle.getHpBBefore(actionIndex);
+        boolean targetIsF2 = battle.isTargetFighter2(actionIndex);
+        int actual = battle.getDamage(actionIndex);
+
+        Character attacker = targetIsF2 ? f1 : f2;
+        Character target = targetIsF2 ? f2 : f1;
+        int min = attacker.getDerivedStats().getMinDamageAgainst(target);
+        int max = attacker.getDerivedStats().getMaxDamageAgainst(target);
+
+        List<Callable<Alternative>> tasks = new ArrayList<>(max - min + 2);
+        if (actual < min) tasks.add(() -> solve(f1, f2, hpA, hpB, targetIsF2, actual, actionIndex, true));
+        for (int d = min; d <= max; d++) {
+            int damage = d;
+            tasks.add(() -> solve(f1, f2, hpA, hpB, targetIsF2, damage, actionIndex, damage == actual));
+        }
+        if (actual > max) tasks.add(() -> solve(f1, f2, hpA, hpB, targetIsF2, actual, actionIndex, true));
+
+        List<Alternative> out = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Alternative> f : pool.invokeAll(tasks)) out.add(f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("explore interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("explore failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return out;
+    }
+
+    private Alternative solve(Character f1, Character f2, int hpA, int hpB, boolean targetIsF2,
+                              int damage, int actionIndex, boolean actual) {
+        int a = targetIsF2 ? hpA : Math.max(0, hpA - damage);
+        int b = targetIsF2 ? Math.max(0, hpB - damage) : hpB;
+        // action i = tour i : le tour suivant est actionIndex + 1
+        DuelOdds odds = solver.solveFrom(f1, f2, a, b, actionIndex + 1);
+        return new Alternative(damage, a, b, odds, actual);
+    }
+
+    public static final class Alternative {
+        private final int damage;
+        private final int hpA; // PV après l'action
+        private final int hpB;
+        private final DuelOdds odds;
+        private final boolean actual;
+
+        Alternative(int damage, int hpA, int hpB, DuelOdds odds, boolean actual) {
+            this.damage = damage;
+            this.hpA = hpA;
+            this.hpB = hpB;
+            this.odds = odds;
+            this.actual = actual;
+        }
+
+        public int getDamage() { return damage; }
+        public int getHpA() { return hpA; }
+        public int getHpB() { return hpB; }
+        public DuelOdds getOdds() { return odds; }
+        public double getProbabilityFighter1Wins() { return odds.getProbabilityAWins(); }
+        public boolean isActual() { return actual; }
+
+        @Override
+        public String toString() {
+            return "damage=" + damage + (actual ? " (actual)" : "") + ", hpA=" + hpA + ", hpB=" + hpB + ", " + odds;
+        }
+    }
+}
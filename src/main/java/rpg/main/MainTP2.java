@@ -1,5 +1,7 @@
 package rpg.main;
 
+import java.util.stream.Stream;
+
 import rpg.builder.InvalidCharacterException;
 import rpg.composite.Army;
 import rpg.composite.PartyComponent;
@@ -58,8 +60,8 @@ public class MainTP2 {
             Character winner = combat.simulate(alice, bob);
 
             view.showMessage("\nCommand history:");
-            for (String action : combat.getCommandHistory().getHistory()) {
-                view.showMessage("- " + action);
+            try (Stream<String> history = combat.getCommandHistory().getHistory()) {
+                history.forEach(action -> view.showMessage("- " + action));
             }
 
         } catch (InvalidCharacterException e) {
@@ -7,6 +7,7 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.Frame;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -19,16 +20,22 @@ import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSlider;
+import javax.swing.JTable;
 import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.border.TitledBorder;
+import javax.swing.table.DefaultTableModel;
 
 import rpg.core.Character;
+import rpg.core.CombatKernel;
+import rpg.core.RandomSource;
 import rpg.history.AdvancedBattleHistoryManager;
 import rpg.history.BattleAction;
 import rpg.history.BattleHistory;
+import rpg.history.WhatIfExplorer;
 
 public class InteractiveBattleReplay extends JDialog {
     public interface VariantSavedCallback {
@@ -40,6 +47,7 @@ public class InteractiveBattleReplay extends JDialog {
     private final AdvancedBattleHistoryManager historyManager;
     private final VariantSavedCallback callback;
     private int currentActionIndex;
+    private int modificationCount; // +1 à chaque modification de currentBattle (applyModification)
     private boolean isPlaying;
     private Timer replayTimer;
     
@@ -53,7 +61,10 @@ public class InteractiveBattleReplay extends JDialog {
     private JButton stepForwardBtn;
     private JButton resetBtn;
     private JButton saveVariantBtn;
+    private JButton exploreBtn;
     private JSlider speedSlider;
+    private JSlider positionSlider;
+    private boolean syncingPosition; // mise à jour du curseur par le code, pas par l'utilisateur
     private JLabel statusLabel;
     private JLabel actionDetailsLabel;
     
@@ -63,6 +74,11 @@ public class InteractiveBattleReplay extends JDialog {
     private int fighter1MaxHP;
     private int fighter2MaxHP;
     
+    private final WhatIfExplorer explorer = new WhatIfExplorer();
+    
+    // après un saut, seules les dernières actions sont réaffichées : coût constant quelle que soit la position
+    private static final int SEEK_LOG_LINES = 200;
+    
     public InteractiveBattleReplay(Frame parent, BattleHistory battle, AdvancedBattleHistoryManager historyManager, VariantSavedCallback callback) {
         super(parent, "Interactive Battle Replay (v2.0) - " + battle.getBattleName(), true);
         this.originalBattle = battle;
@@ -87,8 +103,8 @@ public class InteractiveBattleReplay extends JDialog {
         Character f2 = originalBattle.getFighter2();
         
         // Calculate initial HP (same formula as CombatEngine)
-        fighter1MaxHP = Math.max(10, f1.getStrength() * 10 + f1.getIntelligence() * 2);
-        fighter2MaxHP = Math.max(10, f2.getStrength() * 10 + f2.getIntelligence() * 2);
+        fighter1MaxHP = f1.getMaxHp();
+        fighter2MaxHP = f2.getMaxHp();
         
         fighter1HP = fighter1MaxHP;
         fighter2HP = fighter2MaxHP;
@@ -219,16 +235,25 @@ public class InteractiveBattleReplay extends JDialog {
         speedSlider.setPaintLabels(true);
         speedPanel.add(speedSlider);
         
+        // Position (scrubber) : saute directement à une action
+        positionSlider = new JSlider(0, currentBattle.getActionCount(), 0);
+        positionSlider.setPreferredSize(new Dimension(300, positionSlider.getPreferredSize().height));
+        speedPanel.add(new JLabel("Position:"));
+        speedPanel.add(positionSlider);
+        
         // Action buttons
         JPanel actionPanel = new JPanel(new FlowLayout());
         JButton modifyBtn = new JButton("[*] Modify Action");
+        exploreBtn = new JButton("[?] Explore");
         saveVariantBtn = new JButton("[S] Save Variant");
         saveVariantBtn.setEnabled(false);
         
         modifyBtn.addActionListener(e -> modifyCurrentAction());
+        exploreBtn.addActionListener(e -> exploreCurrentAction());
         saveVariantBtn.addActionListener(e -> saveVariant());
         
         actionPanel.add(modifyBtn);
+        actionPanel.add(exploreBtn);
         actionPanel.add(saveVariantBtn);
         
         // Status
@@ -258,6 +283,12 @@ public class InteractiveBattleReplay extends JDialog {
             int delay = 2000 - (speed * 180); // 1820ms to 200ms
             replayTimer.setDelay(delay);
         });
+        
+        positionSlider.addChangeListener(e -> {
+            if (syncingPosition || positionSlider.getValue() == currentActionIndex) return;
+            pauseReplay();
+            seekTo(positionSlider.getValue());
+        });
     }
     
     private void togglePlayPause() {
@@ -306,8 +337,25 @@ public class InteractiveBattleReplay extends JDialog {
         }
         
         pauseReplay();
-        currentActionIndex--;
-        replayFromStart();
+        seekTo(currentActionIndex - 1);
+    }
+    
+    // PV repris de l'instantané le plus proche dans BattleHistory, sans rejouer depuis le début
+    private void seekTo(int index) {
+        currentActionIndex = Math.max(0, Math.min(index, currentBattle.getActionCount()));
+        fighter1HP = currentBattle.getHpABefore(currentActionIndex);
+        fighter2HP = currentBattle.getHpBBefore(currentActionIndex);
+        
+        int first = Math.max(0, currentActionIndex - SEEK_LOG_LINES);
+        StringBuilder log = new StringBuilder("Starting battle replay...\n");
+        if (first > 0) log.append("... (").append(first).append(" earlier actions)\n");
+        for (int i = first; i < currentActionIndex; i++) {
+            BattleAction action = currentBattle.getAction(i);
+            log.append('[').append(action.getRound()).append("] ").append(action.getDescription()).append('\n');
+        }
+        combatDisplay.setText(log.toString());
+        combatDisplay.setCaretPosition(combatDisplay.getDocument().getLength());
+        updateDisplay();
     }
     
     private void resetReplay() {
@@ -337,20 +385,6 @@ public class InteractiveBattleReplay extends JDialog {
         combatDisplay.setCaretPosition(combatDisplay.getDocument().getLength());
     }
     
-    private void replayFromStart() {
-        initializeCharacterStats();
-        combatDisplay.setText("Starting battle replay...\n");
-        
-        // Use currentBattle to get potentially modified actions
-        List<BattleAction> actionsToReplay = currentBattle.getActions();
-        for (int i = 0; i < currentActionIndex && i < actionsToReplay.size(); i++) {
-            BattleAction action = actionsToReplay.get(i);
-            executeAction(action);
-        }
-        
-        updateDisplay();
-    }
-    
     private void updateDisplay() {
         // Update turn display (juste le tour actuel, pas le total)
         if (turnLabel != null) {
@@ -375,50 +409,29 @@ public class InteractiveBattleReplay extends JDialog {
         stepBackBtn.setEnabled(currentActionIndex > 0);
         stepForwardBtn.setEnabled(currentActionIndex < actions.size());
         playPauseBtn.setEnabled(currentActionIndex < actions.size());
+        
+        if (positionSlider != null) {
+            syncingPosition = true;
+            positionSlider.setMaximum(actions.size());
+            positionSlider.setValue(currentActionIndex);
+            syncingPosition = false;
+        }
     }
     
     private BattleHistory cloneBattle(BattleHistory original) {
-        // Create a copy of the battle for modifications
-        BattleHistory clone = new BattleHistory(original.getFighter1(), original.getFighter2());
-        clone.setWinner(original.getWinner());
-        
-        // Copy all actions using the direct access method
-        List<BattleAction> originalActions = original.getActions();
-        for (BattleAction action : originalActions) {
-            clone.addAction(new BattleAction(
-                action.getRound(),
-                action.getActor(),
-                action.getTarget(),
-                action.getActionType(),
-                action.getDescription(),
-                action.getDamage()
-            ));
-        }
-        
-        return clone;
+        // Variante copie-à-l'écriture : seules les actions modifiées seront dupliquées
+        return original.branch(original.getActionCount());
     }
     
     private void recalculateBattleFromModification(int modifiedActionIndex) {
         System.out.println("Starting recalculation from modification at index " + modifiedActionIndex);
         
-        // Recalculate HP from the beginning up to (but not including) the modified action
-        initializeCharacterStats();
+        // PV avant l'action modifiée : instantané le plus proche, les actions précédentes sont inchangées
+        fighter1HP = currentBattle.getHpABefore(modifiedActionIndex);
+        fighter2HP = currentBattle.getHpBBefore(modifiedActionIndex);
         
         List<BattleAction> actions = currentBattle.getActions();
         
-        // Apply all actions up to (but not including) the modified one - update their descriptions too
-        for (int i = 0; i < modifiedActionIndex; i++) {
-            if (i < actions.size()) {
-                BattleAction action = actions.get(i);
-                applyActionToHP(action);
-                
-                // Update even unchanged actions to show both fighters' HP
-                updateActionDescription(action, i);
-                
-                System.out.println("Applied unchanged action " + (i+1) + ". HP: F1=" + fighter1HP + ", F2=" + fighter2HP);
-            }
-        }
-        
         // Now apply the modified action
         if (modifiedActionIndex < actions.size()) {
             BattleAction modifiedAction = actions.get(modifiedActionIndex);
@@ -448,59 +461,28 @@ public class InteractiveBattleReplay extends JDialog {
     }
     
     private void updateActionDescription(BattleAction action, int actionIndex) {
-        // Create proper description with both fighters' HP info
-        String hpSuffix = " (hpA=" + fighter1HP + ", hpB=" + fighter2HP + ")";
-        
-        // Build complete description
-        String baseDescription = action.getActor().getName() + " " + action.getActionType() + " " + 
-                               action.getTarget().getName() + " for " + action.getDamage() + " damage";
-        String newDescription = baseDescription + hpSuffix;
-        
-        // Create a new action with the updated description
+        // Action structurée avec les PV des deux combattants : le texte sera rendu à l'affichage
         BattleAction updatedAction = new BattleAction(
             action.getRound(),
             action.getActor(),
             action.getTarget(),
             action.getActionType(),
-            newDescription,
-            action.getDamage()
+            action.getDamage(),
+            fighter1HP,
+            fighter2HP
         );
         
         currentBattle.replaceAction(actionIndex, updatedAction);
         
-        System.out.println("Updated action " + (actionIndex + 1) + ": " + newDescription);
+        System.out.println("Updated action " + (actionIndex + 1) + ": " + updatedAction.getDescription());
     }
     
     private void smoothUpdateFromModification(int modifiedActionIndex) {
         System.out.println("Timeline modified at action " + (modifiedActionIndex + 1) + ". Ready for manual replay.");
         
-        // Reset HP to initial state
-        initializeCharacterStats();
-        
-        // DON'T display everything automatically - just clear and reset to modification point
-        combatDisplay.setText("Starting battle replay...\n");
-        
-        // Display actions up to AND INCLUDING the modified action
-        // AND apply them to update HP correctly
+        // Position juste APRÈS l'action modifiée (Play reprend de là), PV et journal recalculés par seekTo
+        seekTo(modifiedActionIndex + 1);
         List<BattleAction> actions = currentBattle.getActions();
-        for (int i = 0; i <= modifiedActionIndex && i < actions.size(); i++) {
-            BattleAction action = actions.get(i);
-            if (action != null) {
-                combatDisplay.append("[" + (i + 1) + "] " + action.getDescription() + "\n");
-                
-                // Apply the action to update HP
-                applyActionToHP(action);
-            }
-        }
-        
-        // Set current position to AFTER the modification (so Play continues from there)
-        currentActionIndex = modifiedActionIndex + 1;
-        
-        // Update HP bars to the state at this point (after applying the modified action)
-        updateDisplay();
-        
-        // Auto-scroll to show current position
-        combatDisplay.setCaretPosition(combatDisplay.getDocument().getLength());
         
         // Set status to indicate user can press Play to continue
         int remainingActions = actions.size() - currentActionIndex;
@@ -528,9 +510,14 @@ public class InteractiveBattleReplay extends JDialog {
         int actionNumber = startIndex + 1;
         int turn = startIndex;
         
+        // flux dérivé de la seed du combat : la même modification régénère la même suite
+        RandomSource random = RandomSource.seeded(currentBattle.getSeed(), startIndex);
+        
         System.out.println("Regenerating battle from action " + actionNumber + ". Current HP: F1=" + fighter1HP + ", F2=" + fighter2HP);
         
-        while (fighter1HP > 0 && fighter2HP > 0 && actionNumber <= 50) { // Limit to prevent infinite loops
+        // même limite que CombatEngine et DuelSolver : les probabilités de l'exploration décrivent
+        // exactement ce que la régénération produit
+        while (fighter1HP > 0 && fighter2HP > 0 && turn < CombatKernel.MAX_TURNS) {
             Character attacker, target;
             
             if (turn % 2 == 0) {
@@ -542,7 +529,7 @@ public class InteractiveBattleReplay extends JDialog {
             }
             
             // Calculate damage (similar to CombatEngine logic)
-            int attackPower = attacker.getStrength() + (int)(Math.random() * 10);
+            int attackPower = attacker.getStrength() + random.nextInt(10);
             int damage = Math.max(1, attackPower - target.getAgility() / 2);
             
             // Apply damage
@@ -552,23 +539,15 @@ public class InteractiveBattleReplay extends JDialog {
                 fighter1HP = Math.max(0, fighter1HP - damage);
             }
             
-            // Create action description with both fighters' HP info
-            String description = String.format("%s attacks %s for %d damage (hpA=%d, hpB=%d)",
-                attacker.getName(),
-                target.getName(),
-                damage,
-                fighter1HP,
-                fighter2HP
-            );
-            
-            // Create and add new action
+            // Create and add new action (with both fighters' HP info)
             BattleAction newAction = new BattleAction(
                 actionNumber,
                 attacker,
                 target,
                 "attacks",
-                description,
-                damage
+                damage,
+                fighter1HP,
+                fighter2HP
             );
             
             currentBattle.addAction(newAction);
@@ -612,23 +591,101 @@ public class InteractiveBattleReplay extends JDialog {
             System.out.println("Action index: " + actionIndex);
             System.out.println("Original damage: " + actionToModify.getDamage() + " -> New damage: " + modifiedAction.getDamage());
             
-            // Replace the action in current battle
-            currentBattle.replaceAction(actionIndex, modifiedAction);
-            
-            // Recalculate the battle from this point (but don't reset display)
-            recalculateBattleFromModification(actionIndex);
-            
-            // Smoothly update the display from the modification point only
-            smoothUpdateFromModification(actionIndex);
-            
-            // Enable save variant button
-            saveVariantBtn.setEnabled(true);
-            statusLabel.setText("Timeline updated from action " + (actionIndex + 1) + "!");
+            applyModification(actionIndex, modifiedAction);
             
             System.out.println("========================");
         }
     }
     
+    private void applyModification(int actionIndex, BattleAction modifiedAction) {
+        modificationCount++;
+        // Replace the action in current battle
+        currentBattle.replaceAction(actionIndex, modifiedAction);
+        
+        // Recalculate the battle from this point (but don't reset display)
+        recalculateBattleFromModification(actionIndex);
+        
+        // Smoothly update the display from the modification point only
+        smoothUpdateFromModification(actionIndex);
+        
+        // Enable save variant button
+        saveVariantBtn.setEnabled(true);
+        statusLabel.setText("Timeline updated from action " + (actionIndex + 1) + "!");
+    }
+    
+    // toutes les valeurs de dégâts possibles pour l'action courante, calculées hors de l'EDT
+    private void exploreCurrentAction() {
+        if (currentActionIndex <= 0 || currentActionIndex > currentBattle.getActionCount()) {
+            JOptionPane.showMessageDialog(this, "No action selected to explore!", "No Action", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        pauseReplay();
+        int actionIndex = currentActionIndex - 1;
+        BattleHistory snapshot = currentBattle.snapshot(); // l'original peut être modifié pendant le calcul
+        int exploredAt = modificationCount;
+        exploreBtn.setEnabled(false);
+        statusLabel.setText("Exploring every damage value for action " + (actionIndex + 1) + "...");
+        
+        new SwingWorker<List<WhatIfExplorer.Alternative>, Void>() {
+            @Override
+            protected List<WhatIfExplorer.Alternative> doInBackground() {
+                return explorer.explore(snapshot, actionIndex);
+            }
+            
+            @Override
+            protected void done() {
+                exploreBtn.setEnabled(true);
+                try {
+                    showExploreResults(actionIndex, exploredAt, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    statusLabel.setText("Exploration failed: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+    
+    private void showExploreResults(int actionIndex, int exploredAt, List<WhatIfExplorer.Alternative> alternatives) {
+        String f1 = originalBattle.getFighter1().getName();
+        String f2 = originalBattle.getFighter2().getName();
+        DefaultTableModel model = new DefaultTableModel(
+            new String[] {"Damage", f1 + " HP", f2 + " HP", "P(" + f1 + " wins)", "P(" + f2 + " wins)", "E[turns]"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        for (WhatIfExplorer.Alternative alt : alternatives) {
+            model.addRow(new Object[] {
+                alt.getDamage() + (alt.isActual() ? " *" : ""),
+                alt.getHpA(),
+                alt.getHpB(),
+                String.format("%.1f%%", alt.getProbabilityFighter1Wins() * 100),
+                String.format("%.1f%%", (1 - alt.getProbabilityFighter1Wins()) * 100),
+                String.format("%.1f", alt.getOdds().getExpectedTurns())
+            });
+        }
+        JTable table = new JTable(model);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(560, 220));
+        
+        statusLabel.setText("Explored " + alternatives.size() + " alternatives for action " + (actionIndex + 1));
+        Object[] options = {"Apply selected", "Close"};
+        int choice = JOptionPane.showOptionDialog(this, scroll,
+            "What-if: action #" + (actionIndex + 1) + " (* = recorded damage)",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[1]);
+        int row = table.getSelectedRow();
+        if (choice != 0 || row < 0) return;
+        if (exploredAt != modificationCount) {
+            // le combat a été modifié pendant le calcul : les probabilités portent sur un autre début
+            statusLabel.setText("Battle changed while exploring - run Explore again");
+            return;
+        }
+        
+        BattleAction action = currentBattle.getAction(actionIndex);
+        applyModification(actionIndex, new BattleAction(action.getRound(), action.getActor(), action.getTarget(),
+            action.getActionType(), alternatives.get(row).getDamage(), -1, -1));
+    }
+    
     private void saveVariant() {
         if (currentBattle.equals(originalBattle)) {
             JOptionPane.showMessageDialog(this, "No modifications to save!", "No Changes", JOptionPane.INFORMATION_MESSAGE);
@@ -641,29 +698,14 @@ public class InteractiveBattleReplay extends JDialog {
             JOptionPane.QUESTION_MESSAGE);
             
         if (variantName != null && !variantName.trim().isEmpty()) {
-            // Create a new battle history as variant
-            BattleHistory variant = cloneBattle(currentBattle);
-            
             // Add " (Variant: name)" to distinguish from original
-            String originalName = variant.getBattleName();
-            if (!originalName.contains("(Variant:")) {
-                // Only add variant suffix if not already a variant
-                variant = new BattleHistory(variant.getFighter1(), variant.getFighter2()) {
-                    @Override
-                    public String getBattleName() {
-                        return originalName + " (Variant: " + variantName.trim() + ")";
-                    }
-                };
-                
-                // Copy actions and winner
-                for (BattleAction action : currentBattle.getActions()) {
-                    variant.addAction(action);
-                }
-                variant.setWinner(currentBattle.getWinner());
-            }
+            String originalName = currentBattle.getBattleName();
+            String name = originalName.contains("(Variant:")
+                ? originalName // Only add variant suffix if not already a variant
+                : originalName + " (Variant: " + variantName.trim() + ")";
             
-            // Save the variant
-            historyManager.addBattle(variant);
+            // Save the variant (shares the unmodified actions with the original)
+            historyManager.saveBattleVariant(currentBattle, name);
             
             saveVariantBtn.setEnabled(false);
             statusLabel.setText("Variant '" + variantName + "' saved successfully!");
@@ -11,6 +11,12 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -18,6 +24,7 @@ import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JList;
@@ -35,7 +42,7 @@ import javax.swing.ListSelectionModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
+import javax.swing.SwingWorker;
 import javax.swing.border.TitledBorder;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeCellRenderer;
@@ -43,17 +50,24 @@ import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreePath;
 import rpg.builder.InvalidCharacterException;
 import rpg.composite.Army;
+import rpg.composite.PartyComponent;
 import rpg.core.Character;
 import rpg.core.CombatEngine;
+import rpg.core.CombatTurnEvent;
+import rpg.core.Party;
 import rpg.dao.DAO;
-import rpg.decorator.CharacterDecorator;
+import rpg.decorator.Capability;
+import rpg.decorator.Decorators;
 import rpg.decorator.FireResistance;
 import rpg.decorator.Invisibility;
 import rpg.decorator.Telepathy;
 import rpg.history.AdvancedBattleHistoryManager;
+import rpg.history.BattleArchive;
 import rpg.history.BattleAction;
 import rpg.history.BattleHistory;
+import rpg.history.BattleLog;
 import rpg.observer.EventBus;
+import rpg.observer.Subscription;
 import rpg.settings.GameSettings;
 
 public class SwingView extends View {
@@ -80,10 +94,11 @@ public class SwingView extends View {
     private int liveFighter1HP, liveFighter2HP;
     private int liveFighter1MaxHP, liveFighter2MaxHP;
     private int currentTurn = 0;
-    private Timer liveAnimationTimer;
     private BattleHistory liveBattleHistory;
-    private int currentActionIndex = 0;
-    private boolean isAnimatingCombat = false;
+    // combat en cours hors de l'EDT : ses événements arrivent par le bus typé, pas par update()
+    private SwingWorker<Character, CombatTurnEvent> liveBattleWorker;
+    private volatile boolean isLiveBattleRunning = false;
+    private JButton fightBtn;
 
     // Settings
     private JSpinner maxStatPointsSpinner, maxCharactersSpinner, maxGroupsSpinner;
@@ -99,6 +114,11 @@ public class SwingView extends View {
     private DefaultTreeModel historyTreeModel;
     private DefaultMutableTreeNode historyRootNode;
     private AdvancedBattleHistoryManager battleHistoryManager;
+    private static final int HISTORY_PAGE_SIZE = 50;
+    private int historyPage;
+    private JLabel historyPageLabel;
+    private JButton historyPrevBtn;
+    private JButton historyNextBtn;
     private CombatEngine combatEngine;
 
     // Character editing state
@@ -127,13 +147,24 @@ public class SwingView extends View {
         this.eventBus = eventBus;
         this.dao = dao;
         this.combatEngine = new CombatEngine(eventBus);
-        this.battleHistoryManager = new AdvancedBattleHistoryManager();
+        // les combats au-delà des 50 derniers partent dans l'archive sur disque
+        this.battleHistoryManager = new AdvancedBattleHistoryManager(
+            AdvancedBattleHistoryManager.DEFAULT_MAX_BATTLES,
+            new BattleArchive(Paths.get("battle-archive.dat"))
+        );
         initializeGUI();
     }
 
     private void initializeGUI() {
         frame = new JFrame("RPG Character Manager - TP2");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // avant la sortie : les combats encore en mémoire rejoignent l'archive
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                battleHistoryManager.close();
+            }
+        });
         frame.setSize(800, 600);
         frame.setLocationRelativeTo(null);
 
@@ -337,7 +368,7 @@ public class SwingView extends View {
 
         fighter1Combo = new JComboBox<>();
         fighter2Combo = new JComboBox<>();
-        JButton fightBtn = new JButton("Start Combat");
+        fightBtn = new JButton("Start Combat");
 
         fightBtn.addActionListener(e -> startCombat());
 
@@ -614,14 +645,14 @@ public class SwingView extends View {
         );
         if (partyName != null && !partyName.trim().isEmpty()) {
             PartyTreeNode partyNode = new PartyTreeNode(partyName.trim());
-            selectedNode.add(partyNode);
-            treeModel.reload(selectedNode);
+            ((ArmyTreeNode) selectedNode).getArmy().add(partyNode.getComponent());
+            treeModel.insertNodeInto(partyNode, selectedNode, selectedNode.getChildCount());
 
             // Expand the army to show the new party
             hierarchyTree.expandPath(selectionPath);
 
             // Refresh display to show updated power totals
-            refreshTreeDisplay();
+            refreshTreeDisplay(selectedNode);
         }
     }
 
@@ -678,14 +709,14 @@ public class SwingView extends View {
             CharacterTreeNode characterNode = new CharacterTreeNode(
                 selectedCharacter
             );
-            selectedNode.add(characterNode);
-            treeModel.reload(selectedNode);
+            ((PartyTreeNode) selectedNode).getParty().add(selectedCharacter);
+            treeModel.insertNodeInto(characterNode, selectedNode, selectedNode.getChildCount());
 
             // Expand the party to show the new character
             hierarchyTree.expandPath(selectionPath);
 
             // Refresh display to show updated power totals
-            refreshTreeDisplay();
+            refreshTreeDisplay(selectedNode);
         }
     }
 
@@ -727,11 +758,16 @@ public class SwingView extends View {
         if (result == JOptionPane.YES_OPTION) {
             DefaultMutableTreeNode parent =
                 (DefaultMutableTreeNode) selectedNode.getParent();
-            parent.remove(selectedNode);
-            treeModel.reload(parent);
+            // les totaux des Army/Party sont mis à jour par le modèle, en remontant les parents
+            if (selectedNode instanceof CharacterTreeNode && parent instanceof PartyTreeNode) {
+                ((PartyTreeNode) parent).getParty().remove(((CharacterTreeNode) selectedNode).getCharacter());
+            } else if (selectedNode instanceof PartyTreeNode && parent instanceof ArmyTreeNode) {
+                ((ArmyTreeNode) parent).getArmy().remove(((PartyTreeNode) selectedNode).getComponent());
+            }
+            treeModel.removeNodeFromParent(selectedNode);
 
             // Refresh display to show updated power totals
-            refreshTreeDisplay();
+            refreshTreeDisplay(parent);
         }
     }
 
@@ -746,16 +782,11 @@ public class SwingView extends View {
         }
     }
 
-    private void refreshTreeDisplay() {
-        // Force the tree to repaint to show updated power calculations
-        treeModel.reload(rootNode);
-
-        // Expand all armies by default
-        for (int i = 0; i < rootNode.getChildCount(); i++) {
-            TreePath armyPath = new TreePath(
-                new Object[] { rootNode, rootNode.getChildAt(i) }
-            );
-            hierarchyTree.expandPath(armyPath);
+    private void refreshTreeDisplay(DefaultMutableTreeNode changed) {
+        // seuls les libellés du chemin vers la racine changent : pas de reload de l'arbre
+        for (DefaultMutableTreeNode node = changed; node != null;
+             node = (DefaultMutableTreeNode) node.getParent()) {
+            treeModel.nodeChanged(node);
         }
     }
 
@@ -804,6 +835,22 @@ public class SwingView extends View {
         buttonPanel.add(clearBtn);
         buttonPanel.add(exportBtn);
 
+        // Pagination (history may include archived battles)
+        historyPrevBtn = new JButton("◀");
+        historyNextBtn = new JButton("▶");
+        historyPageLabel = new JLabel();
+        historyPrevBtn.addActionListener(e -> {
+            historyPage--;
+            refreshBattleHistory();
+        });
+        historyNextBtn.addActionListener(e -> {
+            historyPage++;
+            refreshBattleHistory();
+        });
+        buttonPanel.add(historyPrevBtn);
+        buttonPanel.add(historyPageLabel);
+        buttonPanel.add(historyNextBtn);
+
         // Instructions
         JPanel instructionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         instructionsPanel.add(
@@ -1038,12 +1085,11 @@ public class SwingView extends View {
     }
 
     private boolean hasDecorator(Character character, Class<?> decoratorClass) {
-        Character current = character;
-        while (current instanceof CharacterDecorator) {
-            if (decoratorClass.isInstance(current)) {
+        // chaîne de décorateurs ou personnage compilé (lu en base)
+        for (Capability capability : Decorators.layers(character)) {
+            if (decoratorClass == capability.getType()) {
                 return true;
             }
-            current = ((CharacterDecorator) current).getWrappedCharacter();
         }
         return false;
     }
@@ -1181,25 +1227,65 @@ public class SwingView extends View {
             return;
         }
 
+        if (isLiveBattleRunning) {
+            return;
+        }
+
         // Initialize the live battle interface (style comme le replay)
         initializeLiveBattle(f1, f2);
 
-        // Create new battle history and simulate combat (but don't display yet)
-        liveBattleHistory = battleHistoryManager.startNewBattle(f1, f2);
-        combatEngine.setCurrentBattle(liveBattleHistory);
-
-        // Simulate combat completely (to get all actions)
-        Character winner = combatEngine.simulate(f1, f2);
-        liveBattleHistory.setWinner(winner);
-
-        // Clear the battle link
-        combatEngine.setCurrentBattle(null);
+        // l'historique n'est visible (ajouté au manager) qu'une fois le combat terminé
+        liveBattleHistory = new BattleHistory(f1, f2);
+        isLiveBattleRunning = true;
+        fightBtn.setEnabled(false);
+
+        liveBattleWorker = new SwingWorker<Character, CombatTurnEvent>() {
+            @Override
+            protected Character doInBackground() {
+                // publish() regroupe les événements : process() est appelé au plus une fois par trame
+                Subscription<CombatTurnEvent> turns = eventBus.typed().subscribe(CombatTurnEvent.class, e -> {
+                    if (e.getActor() == f1 || e.getActor() == f2) publish(e);
+                });
+                combatEngine.setCurrentBattle(liveBattleHistory);
+                try {
+                    return combatEngine.simulate(f1, f2);
+                } finally {
+                    combatEngine.setCurrentBattle(null);
+                    turns.unsubscribe();
+                }
+            }
 
-        // Start progressive animation of the battle
-        startLiveBattleAnimation();
+            @Override
+            protected void process(List<CombatTurnEvent> chunk) {
+                // un seul append et une seule mise à jour des barres pour tout le lot
+                StringBuilder lines = new StringBuilder(chunk.size() * 64);
+                for (CombatTurnEvent event : chunk) {
+                    lines.append("Turn ").append(event.getTurn() + 1).append(": ").append(event).append('\n');
+                }
+                combatLogArea.append(lines.toString());
+                combatLogArea.setCaretPosition(combatLogArea.getDocument().getLength());
+                CombatTurnEvent last = chunk.get(chunk.size() - 1);
+                currentTurn = last.getTurn() + 1;
+                updateLiveBattleStatus(last);
+            }
 
-        // Refresh the history display
-        refreshBattleHistory();
+            @Override
+            protected void done() {
+                isLiveBattleRunning = false;
+                fightBtn.setEnabled(true);
+                try {
+                    Character winner = get();
+                    liveBattleHistory.setWinner(winner);
+                    battleHistoryManager.addBattle(liveBattleHistory);
+                    combatLogArea.append("\n=== Winner: " + winner.getName() + " ===\n");
+                    combatLogArea.append("Battle saved to history with " + liveBattleHistory.getActionCount() + " actions.\n");
+                } catch (InterruptedException | ExecutionException e) {
+                    combatLogArea.append("Combat failed: " + e.getMessage() + "\n");
+                }
+                refreshBattleHistory();
+            }
+        };
+        liveBattleWorker.execute();
     }
 
     private void initializeLiveBattle(Character f1, Character f2) {
@@ -1208,14 +1294,8 @@ public class SwingView extends View {
         combatLogArea.setCaretPosition(combatLogArea.getDocument().getLength());
 
         // Initialize HP values (same formula as CombatEngine)
-        liveFighter1MaxHP = Math.max(
-            10,
-            f1.getStrength() * 10 + f1.getIntelligence() * 2
-        );
-        liveFighter2MaxHP = Math.max(
-            10,
-            f2.getStrength() * 10 + f2.getIntelligence() * 2
-        );
+        liveFighter1MaxHP = f1.getMaxHp();
+        liveFighter2MaxHP = f2.getMaxHp();
         liveFighter1HP = liveFighter1MaxHP;
         liveFighter2HP = liveFighter2MaxHP;
 
@@ -1235,65 +1315,34 @@ public class SwingView extends View {
         liveTurnLabel.setText("Tour: " + currentTurn);
     }
 
-    private void updateLiveBattleStatus(String actionDescription) {
+    private void updateLiveBattleStatus(CombatTurnEvent event) {
         // Update turn counter
         liveTurnLabel.setText("Tour: " + currentTurn);
 
-        // Extract HP values from action description
-        // Format: "Q attacks C for 5 damage (hpA=55, hpB=51)"
-        if (
-            actionDescription.contains("hpA=") &&
-            actionDescription.contains("hpB=")
-        ) {
-            try {
-                // Extract hpA
-                int hpAStart = actionDescription.indexOf("hpA=") + 4;
-                int hpAEnd = actionDescription.indexOf(",", hpAStart);
-                if (hpAEnd == -1) hpAEnd = actionDescription.indexOf(
-                    ")",
-                    hpAStart
-                );
-                liveFighter1HP = Integer.parseInt(
-                    actionDescription.substring(hpAStart, hpAEnd)
-                );
-
-                // Extract hpB
-                int hpBStart = actionDescription.indexOf("hpB=") + 4;
-                int hpBEnd = actionDescription.indexOf(")", hpBStart);
-                liveFighter2HP = Integer.parseInt(
-                    actionDescription.substring(hpBStart, hpBEnd)
-                );
+        // PV lus directement dans l'événement, plus besoin de parser le texte
+        liveFighter1HP = event.getHpA();
+        liveFighter2HP = event.getHpB();
 
-                // Update HP bars
-                liveFighter1HPBar.setValue(liveFighter1HP);
-                liveFighter1HPBar.setString(
-                    liveFighter1HP + " / " + liveFighter1MaxHP
-                );
-                liveFighter1HPBar.setForeground(
-                    liveFighter1HP > liveFighter1MaxHP * 0.3
-                        ? Color.GREEN
-                        : Color.RED
-                );
+        // Update HP bars
+        liveFighter1HPBar.setValue(liveFighter1HP);
+        liveFighter1HPBar.setString(
+            liveFighter1HP + " / " + liveFighter1MaxHP
+        );
+        liveFighter1HPBar.setForeground(
+            liveFighter1HP > liveFighter1MaxHP * 0.3
+                ? Color.GREEN
+                : Color.RED
+        );
 
-                liveFighter2HPBar.setValue(liveFighter2HP);
-                liveFighter2HPBar.setString(
-                    liveFighter2HP + " / " + liveFighter2MaxHP
-                );
-                liveFighter2HPBar.setForeground(
-                    liveFighter2HP > liveFighter2MaxHP * 0.3
-                        ? Color.GREEN
-                        : Color.RED
-                );
-            } catch (
-                NumberFormatException
-                | StringIndexOutOfBoundsException e
-            ) {
-                // Si l'extraction échoue, on continue sans mettre à jour les HP
-                System.err.println(
-                    "Could not extract HP from: " + actionDescription
-                );
-            }
-        }
+        liveFighter2HPBar.setValue(liveFighter2HP);
+        liveFighter2HPBar.setString(
+            liveFighter2HP + " / " + liveFighter2MaxHP
+        );
+        liveFighter2HPBar.setForeground(
+            liveFighter2HP > liveFighter2MaxHP * 0.3
+                ? Color.GREEN
+                : Color.RED
+        );
     }
 
     private void createArmy() {
@@ -1338,33 +1387,24 @@ public class SwingView extends View {
 
         @Override
         public String toString() {
-            int totalPower = calculateTotalPower();
+            // totaux maintenus par Army : rien à recalculer à chaque repaint
             return (
                 "[ARMY] " +
                 army.getName() +
                 " (" +
-                getChildCount() +
+                army.getChildCount() +
                 " parties, Power: " +
-                totalPower +
+                army.getTotalPower() +
                 ")"
             );
         }
-
-        private int calculateTotalPower() {
-            int total = 0;
-            for (int i = 0; i < getChildCount(); i++) {
-                Object child = getChildAt(i);
-                if (child instanceof PartyTreeNode) {
-                    total += ((PartyTreeNode) child).calculateTotalPower();
-                }
-            }
-            return total;
-        }
     }
 
     private static class PartyTreeNode extends DefaultMutableTreeNode {
 
         private final String partyName;
+        private final Party party = new Party();
+        private final PartyComponent component = new PartyComponent(party);
 
         public PartyTreeNode(String partyName) {
             super(partyName);
@@ -1375,31 +1415,26 @@ public class SwingView extends View {
             return partyName;
         }
 
+        public Party getParty() {
+            return party;
+        }
+
+        public PartyComponent getComponent() {
+            return component;
+        }
+
         @Override
         public String toString() {
-            int totalPower = calculateTotalPower();
             return (
                 "[PARTY] " +
                 partyName +
                 " (" +
-                getChildCount() +
+                party.size() +
                 " characters, Power: " +
-                totalPower +
+                party.totalPower() +
                 ")"
             );
         }
-
-        public int calculateTotalPower() {
-            int total = 0;
-            for (int i = 0; i < getChildCount(); i++) {
-                Object child = getChildAt(i);
-                if (child instanceof CharacterTreeNode) {
-                    total +=
-                        ((CharacterTreeNode) child).getCharacter().getPowerLevel();
-                }
-            }
-            return total;
-        }
     }
 
     private static class CharacterTreeNode extends DefaultMutableTreeNode {
@@ -1421,7 +1456,7 @@ public class SwingView extends View {
                 "[CHAR] " +
                 character.getName() +
                 " (Power: " +
-                character.getPowerLevel() +
+                character.getDerivedStats().getPowerLevel() +
                 ")"
             );
         }
@@ -1576,6 +1611,10 @@ public class SwingView extends View {
     }
 
     private void replayHistory() {
+        if (isLiveBattleRunning) {
+            combatLogArea.append("\nWait for the current battle to finish before replaying commands.\n");
+            return;
+        }
         combatLogArea.append("\n--- Replaying commands ---\n");
         combatEngine.getCommandHistory().replay();
         combatLogArea.append("--- Replay complete ---\n");
@@ -1585,7 +1624,17 @@ public class SwingView extends View {
     private void refreshBattleHistory() {
         historyRootNode.removeAllChildren();
 
-        for (BattleHistory battle : battleHistoryManager.getAllBattles()) {
+        int total = battleHistoryManager.getTotalBattleCount();
+        int pages = Math.max(1, (total + HISTORY_PAGE_SIZE - 1) / HISTORY_PAGE_SIZE);
+        historyPage = Math.max(0, Math.min(historyPage, pages - 1));
+        historyPageLabel.setText("Page " + (historyPage + 1) + " / " + pages);
+        historyPrevBtn.setEnabled(historyPage > 0);
+        historyNextBtn.setEnabled(historyPage < pages - 1);
+
+        for (BattleHistory battle : battleHistoryManager.getBattlesPage(
+            historyPage,
+            HISTORY_PAGE_SIZE
+        )) {
             BattleHistoryNode battleNode = new BattleHistoryNode(battle);
 
             // Add action nodes
@@ -1608,158 +1657,6 @@ public class SwingView extends View {
         }
     }
 
-    private void startLiveBattleAnimation() {
-        if (
-            liveBattleHistory == null ||
-            liveBattleHistory.getActions().isEmpty()
-        ) {
-            combatLogArea.append("No actions to display.\n");
-            return;
-        }
-
-        // Stop any existing animation
-        if (liveAnimationTimer != null && liveAnimationTimer.isRunning()) {
-            liveAnimationTimer.stop();
-        }
-
-        // Set flag to ignore Observer events during animation
-        isAnimatingCombat = true;
-
-        // Clear the combat log
-        combatLogArea.setText("");
-
-        // Reset animation state
-        currentActionIndex = 0;
-        liveFighter1HP = liveFighter1MaxHP;
-        liveFighter2HP = liveFighter2MaxHP;
-        currentTurn = 0;
-
-        // Update initial HP bars
-        updateLiveBattleHP();
-
-        // Start animation timer (1 second delay between actions)
-        liveAnimationTimer = new Timer(1000, e -> {
-            if (currentActionIndex < liveBattleHistory.getActions().size()) {
-                displayNextLiveAction();
-                currentActionIndex++;
-            } else {
-                // Animation finished
-                liveAnimationTimer.stop();
-
-                // Display winner
-                Character winner = liveBattleHistory.getWinner();
-                if (winner != null) {
-                    combatLogArea.append(
-                        "\n=== Winner: " + winner.getName() + " ===\n"
-                    );
-                }
-                combatLogArea.append(
-                    "Battle saved to history with " +
-                        liveBattleHistory.getActions().size() +
-                        " actions.\n"
-                );
-
-                // Re-enable Observer events
-                isAnimatingCombat = false;
-            }
-        });
-
-        liveAnimationTimer.start();
-    }
-
-    private void displayNextLiveAction() {
-        if (currentActionIndex >= liveBattleHistory.getActions().size()) {
-            return;
-        }
-
-        BattleAction action = liveBattleHistory
-            .getActions()
-            .get(currentActionIndex);
-
-        // Update turn counter if necessary
-        if (action.getRound() > currentTurn) {
-            currentTurn = action.getRound();
-            liveTurnLabel.setText("Turn " + currentTurn);
-        }
-
-        // Display the action in combat log
-        String actionText =
-            "Turn " + action.getRound() + ": " + action.getDescription();
-        combatLogArea.append(actionText + "\n");
-        combatLogArea.setCaretPosition(combatLogArea.getDocument().getLength());
-
-        // Update HP based on action type
-        updateLiveActionHP(action);
-
-        // Update HP bars
-        updateLiveBattleHP();
-    }
-
-    private void updateLiveActionHP(BattleAction action) {
-        // Use the damage directly from the action
-        int damage = action.getDamage();
-
-        if (damage > 0) {
-            // Determine which fighter took damage based on target
-            Character target = action.getTarget();
-
-            if (
-                target
-                    .getName()
-                    .equals(liveBattleHistory.getFighter1().getName())
-            ) {
-                // Fighter1 takes damage
-                liveFighter1HP = Math.max(0, liveFighter1HP - damage);
-            } else if (
-                target
-                    .getName()
-                    .equals(liveBattleHistory.getFighter2().getName())
-            ) {
-                // Fighter2 takes damage
-                liveFighter2HP = Math.max(0, liveFighter2HP - damage);
-            }
-        }
-    }
-
-    private void updateLiveBattleHP() {
-        // Update HP bars with current HP values
-        if (liveFighter1HPBar != null && liveFighter2HPBar != null) {
-            // Set the actual HP values (not percentages)
-            liveFighter1HPBar.setValue(liveFighter1HP);
-            liveFighter2HPBar.setValue(liveFighter2HP);
-
-            // Update HP text
-            liveFighter1HPBar.setString(
-                liveFighter1HP + "/" + liveFighter1MaxHP + " HP"
-            );
-            liveFighter2HPBar.setString(
-                liveFighter2HP + "/" + liveFighter2MaxHP + " HP"
-            );
-
-            // Calculate percentages for color determination
-            int hp1Percentage = liveFighter1MaxHP > 0
-                ? (liveFighter1HP * 100) / liveFighter1MaxHP
-                : 0;
-            int hp2Percentage = liveFighter2MaxHP > 0
-                ? (liveFighter2HP * 100) / liveFighter2MaxHP
-                : 0;
-
-            // Update colors based on HP percentage
-            liveFighter1HPBar.setForeground(getHPColor(hp1Percentage));
-            liveFighter2HPBar.setForeground(getHPColor(hp2Percentage));
-        }
-    }
-
-    private Color getHPColor(int hpPercentage) {
-        if (hpPercentage > 60) {
-            return new Color(0, 200, 0); // Vert vif
-        } else if (hpPercentage > 30) {
-            return new Color(255, 200, 0); // Jaune/orange
-        } else {
-            return new Color(220, 0, 0); // Rouge
-        }
-    }
-
     private void handleBattleDoubleClick() {
         TreePath selectionPath = battleHistoryTree.getSelectionPath();
         if (selectionPath != null) {
@@ -1846,7 +1743,47 @@ public class SwingView extends View {
         }
 
         BattleHistory battle = ((BattleHistoryNode) selectedNode).getBattle();
-        exportBattleToText(battle);
+        Object[] formats = { "Binary log (.rpglog)", "Text" };
+        int format = JOptionPane.showOptionDialog(
+            frame,
+            "Export format:",
+            "Export Battle",
+            JOptionPane.DEFAULT_OPTION,
+            JOptionPane.QUESTION_MESSAGE,
+            null,
+            formats,
+            formats[0]
+        );
+        if (format == 0) {
+            exportBattleToLog(battle);
+        } else if (format == 1) {
+            exportBattleToText(battle);
+        }
+    }
+
+    // ajoute le combat au journal binaire choisi (relu par BattleLog.scan / readAll)
+    private void exportBattleToLog(BattleHistory battle) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("battles.rpglog"));
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            BattleLog.append(chooser.getSelectedFile().toPath(), battle);
+            JOptionPane.showMessageDialog(
+                frame,
+                "Battle appended to " + chooser.getSelectedFile().getName(),
+                "Export Battle",
+                JOptionPane.INFORMATION_MESSAGE
+            );
+        } catch (RuntimeException e) {
+            JOptionPane.showMessageDialog(
+                frame,
+                "Export failed: " + e.getMessage(),
+                "Export Battle",
+                JOptionPane.ERROR_MESSAGE
+            );
+        }
     }
 
     private void showBattleDetails(BattleHistory battle) {
@@ -1998,16 +1935,17 @@ public class SwingView extends View {
 
     @Override
     public void update(String eventType, Object data) {
+        // pendant un combat en direct, les tours arrivent groupés par le SwingWorker :
+        // pas un invokeLater par coup
+        if (isLiveBattleRunning && eventType.startsWith("COMBAT_")) {
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             switch (eventType) {
                 case "CHARACTER_CREATED":
                     refreshCharacterList();
                     break;
                 case "COMBAT_ACTION":
-                    // Ignore combat actions during animation (will be displayed progressively)
-                    if (isAnimatingCombat) {
-                        return;
-                    }
                     // Format the action like in the replay (with turn number)
                     currentTurn++;
                     String actionText =
@@ -2017,21 +1955,15 @@ public class SwingView extends View {
                         combatLogArea.getDocument().getLength()
                     );
 
-                    // Update HP bars and turn counter (extract HP from action text)
-                    updateLiveBattleStatus(data.toString());
+                    // Update HP bars and turn counter
+                    if (data instanceof CombatTurnEvent) {
+                        updateLiveBattleStatus((CombatTurnEvent) data);
+                    }
                     break;
                 case "COMBAT_START":
-                    // Ignore combat start during animation
-                    if (isAnimatingCombat) {
-                        return;
-                    }
                     combatLogArea.append("=== " + data.toString() + " ===\n");
                     break;
                 case "COMBAT_END":
-                    // Ignore combat end during animation
-                    if (isAnimatingCombat) {
-                        return;
-                    }
                     combatLogArea.append("=== " + data.toString() + " ===\n");
                     break;
                 default:
@@ -2043,49 +1975,14 @@ public class SwingView extends View {
 
     private Character findBaseCharacter(Character character) {
         // Strip all decorators to find the base character
-        Character current = character;
-        while (current instanceof CharacterDecorator) {
-            current = ((CharacterDecorator) current).getWrappedCharacter();
-        }
-        return current;
+        return Decorators.unwrap(character);
     }
 
     private Character reapplyDecorators(
         Character originalDecorated,
         Character newBase
     ) {
-        // Get the decorator chain from the original character
-        java.util.List<String> decorators = new java.util.ArrayList<>();
-        Character current = originalDecorated;
-
-        while (current instanceof CharacterDecorator) {
-            CharacterDecorator decorator = (CharacterDecorator) current;
-            if (decorator instanceof Invisibility) {
-                decorators.add(0, "invisibility");
-            } else if (decorator instanceof FireResistance) {
-                decorators.add(0, "fire");
-            } else if (decorator instanceof Telepathy) {
-                decorators.add(0, "telepathy");
-            }
-            current = decorator.getWrappedCharacter();
-        }
-
-        // Reapply decorators to new base
-        Character result = newBase;
-        for (String decoratorType : decorators) {
-            switch (decoratorType) {
-                case "invisibility":
-                    result = new Invisibility(result);
-                    break;
-                case "fire":
-                    result = new FireResistance(result);
-                    break;
-                case "telepathy":
-                    result = new Telepathy(result);
-                    break;
-            }
-        }
-
-        return result;
+        // Reapply the decorator chain of the original character to the new base
+        return Decorators.reapply(Decorators.serialize(originalDecorated), newBase);
     }
 }
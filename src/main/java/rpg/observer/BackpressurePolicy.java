@@ -0,0 +1,8 @@
+package rpg.observer;
+
+// Que faire quand le tampon d'un abonné est plein
+public enum BackpressurePolicy {
+    BLOCK,        // l'émetteur attend qu'une place se libère
+    DROP_OLDEST,  // l'événement le plus ancien en attente est perdu
+    COALESCE      // un seul événement en attente : le plus récent remplace le précédent
+}
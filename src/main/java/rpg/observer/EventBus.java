@@ -5,6 +5,7 @@ import java.util.List;
 
 public class EventBus implements Observable {
     private final List<Observer> observers = new ArrayList<>();
+    private volatile TypedEventBus typed;
 
     @Override
     public void addObserver(Observer observer) {
@@ -22,4 +23,20 @@ public class EventBus implements Observable {
             observer.update(eventType, data);
         }
     }
-}
\ No newline at end of file
+
+    public boolean hasObservers() {
+        return !observers.isEmpty();
+    }
+
+    // mode typé : abonnements par classe d'événement, livraison asynchrone possible
+    public TypedEventBus typed() {
+        TypedEventBus t = typed;
+        if (t == null) {
+            synchronized (this) {
+                if (typed == null) typed = new TypedEventBus();
+                t = typed;
+            }
+        }
+        return t;
+    }
+}
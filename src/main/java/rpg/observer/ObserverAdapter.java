@@ -0,0 +1,20 @@
+package rpg.observer;
+
+import java.util.function.Consumer;
+
+// Branche un Observer historique sur le TypedEventBus : l'événement typé est transmis
+// tel quel comme data, sous le nom d'événement donné
+public class ObserverAdapter implements Consumer<Object> {
+    private final Observer observer;
+    private final String eventType;
+
+    public ObserverAdapter(Observer observer, String eventType) {
+        this.observer = observer;
+        this.eventType = eventType;
+    }
+
+    @Override
+    public void accept(Object event) {
+        observer.update(eventType, event);
+    }
+}
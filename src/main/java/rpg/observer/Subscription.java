@@ -0,0 +1,135 @@
+package rpg.observer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Un abonné du TypedEventBus. Synchrone (executor null) : le handler est appelé directement.
+// Sinon : tampon circulaire borné vidé par son propre executor.
+public final class Subscription<E> {
+    private final TypedEventBus bus;
+    final Class<E> type;
+    private final Consumer<? super E> handler;
+    private final Executor executor; // null : synchrone
+    private final BackpressurePolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Object[] ring;
+    private int head;
+    private int size;
+    private boolean draining;
+    private volatile boolean active = true;
+    private final AtomicLong dropped = new AtomicLong();
+
+    Subscription(TypedEventBus bus, Class<E> type, Consumer<? super E> handler,
+                 Executor executor, BackpressurePolicy policy, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.bus = bus;
+        this.type = type;
+        this.handler = handler;
+        this.executor = executor;
+        this.policy = policy;
+        this.ring = new Object[capacity];
+    }
+
+    void offer(Object event) {
+        if (executor == null) {
+            if (active) deliver(event);
+            return;
+        }
+        boolean schedule = false;
+        lock.lock();
+        try {
+            if (!active) return;
+            if (policy == BackpressurePolicy.COALESCE && size > 0) {
+                ring[(head + size - 1) % ring.length] = event;
+                dropped.incrementAndGet();
+                return;
+            }
+            if (size == ring.length) {
+                if (policy == BackpressurePolicy.DROP_OLDEST) {
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    size--;
+                    dropped.incrementAndGet();
+                } else {
+                    while (size == ring.length && active) notFull.awaitUninterruptibly();
+                    if (!active) return;
+                }
+            }
+            ring[(head + size) % ring.length] = event;
+            size++;
+            if (!draining) {
+                draining = true;
+                schedule = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) executor.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            Object event;
+            lock.lock();
+            try {
+                if (size == 0 || !active) {
+                    draining = false;
+                    return;
+                }
+                event = ring[head];
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+                size--;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                deliver(event);
+            } catch (RuntimeException e) {
+                // le gestionnaire d'erreurs a relancé : les événements en attente partent dans
+                // une nouvelle tâche (draining reste vrai) avant de remonter à l'executor
+                executor.execute(this::drain);
+                throw e;
+            }
+        }
+    }
+
+    private void deliver(Object event) {
+        try {
+            handler.accept(type.cast(event));
+        } catch (RuntimeException e) {
+            bus.handlerFailed(this, e);
+        }
+    }
+
+    public void unsubscribe() {
+        lock.lock();
+        try {
+            active = false;
+            size = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        bus.remove(this);
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package rpg.observer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+// Bus d'événements typés : abonnement par classe d'événement, et un événement sans
+// abonné ne coûte qu'une recherche dans une table (hasSubscribers permet même de ne
+// pas le construire). Un abonné synchrone est appelé directement par publish() ; un abonné
+// asynchrone a son tampon borné et son executor. Une exception d'abonné est signalée au
+// gestionnaire d'erreurs (par défaut : relancée à l'émetteur, après les autres abonnés).
+public class TypedEventBus {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final Subscription<?>[] NONE = new Subscription<?>[0];
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    // abonnés par classe concrète d'événement, recalculés après chaque (dés)abonnement
+    private volatile Map<Class<?>, Subscription<?>[]> routes = new ConcurrentHashMap<>();
+    private volatile Consumer<RuntimeException> errorHandler; // null : relancée
+
+    // livraison synchrone : le handler est appelé dans publish(), sur le thread de chaque émetteur
+    public <E> Subscription<E> subscribe(Class<E> type, Consumer<? super E> handler) {
+        return register(new Subscription<>(this, type, handler, null, BackpressurePolicy.DROP_OLDEST, 1));
+    }
+
+    // livraison par l'executor, dans l'ordre d'émission, avec un tampon de capacity événements
+    public <E> Subscription<E> subscribe(Class<E> type, Consumer<? super E> handler, Executor executor,
+                                         BackpressurePolicy policy, int capacity) {
+        if (executor == null) throw new IllegalArgumentException("executor must not be null");
+        return register(new Subscription<>(this, type, handler, executor, policy, capacity));
+    }
+
+    private <E> Subscription<E> register(Subscription<E> s) {
+        synchronized (subscriptions) {
+            subscriptions.add(s);
+            routes = new ConcurrentHashMap<>();
+        }
+        return s;
+    }
+
+    // adaptateur pour les Observer existants
+    public <E> Subscription<E> subscribe(Class<E> type, Observer observer, String eventType) {
+        return subscribe(type, new ObserverAdapter(observer, eventType));
+    }
+
+    // pour les livraisons asynchrones, appelé sur le thread de l'executor
+    public void setErrorHandler(Consumer<RuntimeException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    void handlerFailed(Subscription<?> s, RuntimeException e) {
+        RuntimeException failure = new RuntimeException(
+            "event handler failed for " + s.type.getSimpleName() + ": " + e.getMessage(), e);
+        Consumer<RuntimeException> handler = errorHandler;
+        if (handler == null) throw failure;
+        handler.accept(failure);
+    }
+
+    void remove(Subscription<?> s) {
+        synchronized (subscriptions) {
+            subscriptions.remove(s);
+            routes = new ConcurrentHashMap<>();
+        }
+    }
+
+    public boolean hasSubscribers(Class<?> type) {
+        return route(type).length > 0;
+    }
+
+    // un abonné défaillant ne prive pas les suivants de l'événement
+    public void publish(Object event) {
+        RuntimeException failure = null;
+        for (Subscription<?> s : route(event.getClass())) {
+            try {
+                s.offer(event);
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private Subscription<?>[] route(Class<?> type) {
+        return routes.computeIfAbsent(type, t -> {
+            Subscription<?>[] matching = subscriptions.stream()
+                .filter(s -> s.type.isAssignableFrom(t))
+                .toArray(Subscription<?>[]::new);
+            return matching.length == 0 ? NONE : matching;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package rpg.settings;
 
+import java.util.concurrent.atomic.AtomicLong;
 import rpg.core.Character;
 
 public class GameSettings {
@@ -8,6 +9,8 @@ public class GameSettings {
     private int maxStatPoints = 30;
     private int maxCharactersPerGroup = 10;
     private int maxGroupsPerArmy = 5;
+    // incrémenté à chaque changement de règle (les caches s'en servent pour s'invalider)
+    private final AtomicLong rulesVersion = new AtomicLong();
 
     private GameSettings() {}
 
@@ -21,6 +24,7 @@ public class GameSettings {
 
     public void setMaxStatPoints(int maxStatPoints) {
         this.maxStatPoints = maxStatPoints;
+        rulesVersion.incrementAndGet();
     }
 
     public boolean isValid(Character c) {
@@ -34,6 +38,7 @@ public class GameSettings {
 
     public void setMaxCharactersPerGroup(int maxCharactersPerGroup) {
         this.maxCharactersPerGroup = maxCharactersPerGroup;
+        rulesVersion.incrementAndGet();
     }
 
     public int getMaxGroupsPerArmy() {
@@ -42,5 +47,10 @@ public class GameSettings {
 
     public void setMaxGroupsPerArmy(int maxGroupsPerArmy) {
         this.maxGroupsPerArmy = maxGroupsPerArmy;
+        rulesVersion.incrementAndGet();
+    }
+
+    public long getRulesVersion() {
+        return rulesVersion.get();
     }
 }
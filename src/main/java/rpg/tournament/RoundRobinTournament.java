@@ -0,0 +1,231 @@
+package rpg.tournament;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import rpg.core.Character;
+import rpg.core.CombatKernel;
+import rpg.core.RandomSource;
+import rpg.dao.DAO;
+
+// Tournoi toutes rondes sur le roster d'un DAO : les N·(N-1)/2 rencontres ne sont jamais
+// matérialisées, on parcourt les lignes (i, j > i) du triangle par blocs, chaque bloc
+// réparti sur le pool. Entre deux blocs, l'état est sauvegardé si un fichier de reprise
+// est configuré, ce qui permet de traiter un très gros roster en plusieurs fois.
+public class RoundRobinTournament {
+    private static final int CHECKPOINT_MAGIC = 0x52524332; // "RRC2" : flux de ligne seeded(seed, i)
+    // la matrice est indexée en int : n * n doit rester < 2^31
+    public static final int MAX_MATRIX_SIZE = 46340;
+
+    private final DAO<Character> dao;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int fightsPerMatchup = 10;
+    private int matrixLimit = 2000; // au-delà, la matrice N x N n'est pas conservée
+    private Path checkpointFile;
+    private int rowsPerCheckpoint = 256;
+
+    public RoundRobinTournament(DAO<Character> dao) {
+        this.dao = dao;
+    }
+
+    public RoundRobinTournament setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public RoundRobinTournament setFightsPerMatchup(int fightsPerMatchup) {
+        if (fightsPerMatchup < 1) throw new IllegalArgumentException("fightsPerMatchup must be >= 1");
+        this.fightsPerMatchup = fightsPerMatchup;
+        return this;
+    }
+
+    public RoundRobinTournament setMatrixLimit(int matrixLimit) {
+        if (matrixLimit > MAX_MATRIX_SIZE) {
+            throw new IllegalArgumentException("matrixLimit must be <= " + MAX_MATRIX_SIZE);
+        }
+        this.matrixLimit = matrixLimit;
+        return this;
+    }
+
+    public RoundRobinTournament setCheckpoint(Path file, int rowsPerCheckpoint) {
+        if (rowsPerCheckpoint < 1) throw new IllegalArgumentException("rowsPerCheckpoint must be >= 1");
+        this.checkpointFile = file;
+        this.rowsPerCheckpoint = rowsPerCheckpoint;
+        return this;
+    }
+
+    public TournamentResult run() {
+        return run(RandomSource.newSeed());
+    }
+
+    // avec un fichier de reprise, relancer run() avec la même seed reprend là où on s'était arrêté
+    public TournamentResult run(long seed) {
+        List<Character> roster = dao.findAll();
+        State state = new State(roster, seed);
+
+        int row = checkpointFile != null ? state.loadCheckpoint(checkpointFile) : 0;
+        int n = roster.size();
+        while (row < n) {
+            int next = checkpointFile != null ? Math.min(n, row + rowsPerCheckpoint) : n;
+            pool.invoke(new RowTask(state, row, next));
+            row = next;
+            if (checkpointFile != null) state.saveCheckpoint(checkpointFile, row);
+        }
+
+        return new TournamentResult(roster, toArray(state.wins), toArray(state.draws),
+            toArray(state.losses), state.matrix, fightsPerMatchup);
+    }
+
+    private static int[] toArray(AtomicIntegerArray a) {
+        int[] out = new int[a.length()];
+        for (int i = 0; i < out.length; i++) out[i] = a.get(i);
+        return out;
+    }
+
+    private final class State {
+        final List<Character> roster;
+        final int n;
+        final long seed;
+        final CombatKernel kernel;
+        final AtomicIntegerArray wins;
+        final AtomicIntegerArray draws;
+        final AtomicIntegerArray losses;
+        final float[] matrix;
+
+        State(List<Character> roster, long seed) {
+            this.roster = roster;
+            this.n = roster.size();
+            this.seed = seed;
+            this.kernel = CombatKernel.of(roster);
+            this.wins = new AtomicIntegerArray(n);
+            this.draws = new AtomicIntegerArray(n);
+            this.losses = new AtomicIntegerArray(n);
+            this.matrix = n <= matrixLimit ? new float[n * n] : null;
+        }
+
+        // ligne i : toutes les rencontres (i, j) pour j > i, sur un flux propre à la ligne
+        void playRow(int i) {
+            RandomSource rng = RandomSource.seeded(seed, i);
+            int rowWins = 0, rowDraws = 0, rowLosses = 0;
+            for (int j = i + 1; j < n; j++) {
+                int iWins = 0;
+                for (int f = 0; f < fightsPerMatchup; f++) {
+                    // on alterne qui frappe en premier
+                    if ((f & 1) == 0) {
+                        if (CombatKernel.aWins(kernel.duel(i, j, rng))) iWins++;
+                    } else {
+                        if (!CombatKernel.aWins(kernel.duel(j, i, rng))) iWins++;
+                    }
+                }
+                int jWins = fightsPerMatchup - iWins;
+                if (iWins > jWins) {
+                    rowWins++;
+                    losses.incrementAndGet(j);
+                } else if (jWins > iWins) {
+                    rowLosses++;
+                    wins.incrementAndGet(j);
+                } else {
+                    rowDraws++;
+                    draws.incrementAndGet(j);
+                }
+                if (matrix != null) {
+                    float rate = (float) iWins / fightsPerMatchup;
+                    matrix[i * n + j] = rate;
+                    matrix[j * n + i] = 1f - rate;
+                }
+            }
+            wins.addAndGet(i, rowWins);
+            draws.addAndGet(i, rowDraws);
+            losses.addAndGet(i, rowLosses);
+        }
+
+        // empreinte du roster et des paramètres : une reprise n'est valable que pour le même tournoi
+        long fingerprint() {
+            long h = seed * 31 + fightsPerMatchup;
+            // une reprise sans la matrice (ou l'inverse) laisserait des lignes à zéro
+            h = h * 31 + (matrix != null ? 1 : 0);
+            for (Character c : roster) {
+                h = h * 1_000_003 + c.getName().hashCode();
+                h = h * 31 + c.getStrength();
+                h = h * 31 + c.getAgility();
+                h = h * 31 + c.getIntelligence();
+            }
+            return h;
+        }
+
+        int loadCheckpoint(Path file) {
+            if (!Files.exists(file)) return 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != CHECKPOINT_MAGIC || in.readLong() != fingerprint() || in.readInt() != n) {
+                    return 0; // autre tournoi : on repart de zéro
+                }
+                int nextRow = in.readInt();
+                for (int i = 0; i < n; i++) wins.set(i, in.readInt());
+                for (int i = 0; i < n; i++) draws.set(i, in.readInt());
+                for (int i = 0; i < n; i++) losses.set(i, in.readInt());
+                if (in.readBoolean() && matrix != null) {
+                    for (int i = 0; i < matrix.length; i++) matrix[i] = in.readFloat();
+                }
+                return nextRow;
+            } catch (IOException e) {
+                throw new RuntimeException("checkpoint load failed: " + e.getMessage(), e);
+            }
+        }
+
+        void saveCheckpoint(Path file, int nextRow) {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeLong(fingerprint());
+                out.writeInt(n);
+                out.writeInt(nextRow);
+                for (int i = 0; i < n; i++) out.writeInt(wins.get(i));
+                for (int i = 0; i < n; i++) out.writeInt(draws.get(i));
+                for (int i = 0; i < n; i++) out.writeInt(losses.get(i));
+                out.writeBoolean(matrix != null);
+                if (matrix != null) {
+                    for (float v : matrix) out.writeFloat(v);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("checkpoint save failed: " + e.getMessage(), e);
+            }
+            try {
+                // remplacement atomique : un arrêt brutal laisse toujours un checkpoint complet
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new RuntimeException("checkpoint save failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class RowTask extends RecursiveAction {
+        private final State state;
+        private final int from;
+        private final int to;
+
+        RowTask(State state, int from, int to) {
+            this.state = state;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                state.playRow(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowTask(state, from, mid), new RowTask(state, mid, to));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package rpg.tournament;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import rpg.core.Character;
+
+public class TournamentResult {
+    public static class Standing {
+        private final int rank;
+        private final Character character;
+        private final int wins;
+        private final int draws;
+        private final int losses;
+
+        Standing(int rank, Character character, int wins, int draws, int losses) {
+            this.rank = rank;
+            this.character = character;
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+        }
+
+        public int getRank() { return rank; }
+        public Character getCharacter() { return character; }
+        public int getWins() { return wins; }
+        public int getDraws() { return draws; }
+        public int getLosses() { return losses; }
+        public int getPoints() { return wins * 3 + draws; }
+
+        @Override
+        public String toString() {
+            return String.format("%d. %s - %d pts (%dW %dD %dL)",
+                rank, character.getName(), getPoints(), wins, draws, losses);
+        }
+    }
+
+    private final List<Character> roster;
+    private final int[] wins;
+    private final int[] draws;
+    private final int[] losses;
+    private final float[] winMatrix; // null si non enregistrée
+    private final int fightsPerMatchup;
+
+    TournamentResult(List<Character> roster, int[] wins, int[] draws, int[] losses,
+                     float[] winMatrix, int fightsPerMatchup) {
+        this.roster = roster;
+        this.wins = wins;
+        this.draws = draws;
+        this.losses = losses;
+        this.winMatrix = winMatrix;
+        this.fightsPerMatchup = fightsPerMatchup;
+    }
+
+    public List<Standing> getStandings() {
+        List<Integer> order = new ArrayList<>(roster.size());
+        for (int i = 0; i < roster.size(); i++) order.add(i);
+        order.sort(Comparator.<Integer>comparingInt(i -> -(wins[i] * 3 + draws[i]))
+            .thenComparingInt(i -> -wins[i])
+            .thenComparing(i -> roster.get(i).getName()));
+
+        List<Standing> standings = new ArrayList<>(order.size());
+        for (int r = 0; r < order.size(); r++) {
+            int i = order.get(r);
+            standings.add(new Standing(r + 1, roster.get(i), wins[i], draws[i], losses[i]));
+        }
+        return standings;
+    }
+
+    public List<Character> getRoster() {
+        return Collections.unmodifiableList(roster);
+    }
+
+    public boolean hasWinMatrix() {
+        return winMatrix != null;
+    }
+
+    // part des combats gagnés par roster[i] contre roster[j]
+    public double getWinRate(int i, int j) {
+        if (winMatrix == null) throw new IllegalStateException("Win matrix was not recorded");
+        return winMatrix[i * roster.size() + j];
+    }
+
+    public int getFightsPerMatchup() {
+        return fightsPerMatchup;
+    }
+}
@@ -55,7 +55,7 @@ public class RpgGui {
         // Left: saved characters list
         DefaultListModel<String> listModel = new DefaultListModel<>();
         for (Character c : dao.findAll()) {
-            listModel.addElement(c.getDescription() + " -> Power=" + c.getPowerLevel());
+            listModel.addElement(c.getDerivedStats().getDescription() + " -> Power=" + c.getDerivedStats().getPowerLevel());
         }
         JList<String> savedList = new JList<>(listModel);
         JScrollPane leftScroll = new JScrollPane(savedList);
@@ -130,7 +130,7 @@ public class RpgGui {
                     // refresh saved list
                     listModel.clear();
                     for (Character c : dao.findAll()) {
-                        listModel.addElement(c.getDescription() + " -> Power=" + c.getPowerLevel());
+                        listModel.addElement(c.getDerivedStats().getDescription() + " -> Power=" + c.getDerivedStats().getPowerLevel());
                     }
                     logArea.setText("Saved: " + decorated.getDescription());
                     resultsArea.setText("Total saved: " + dao.findAll().size());